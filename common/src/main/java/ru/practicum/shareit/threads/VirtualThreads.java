@@ -0,0 +1,45 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@Slf4j
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        try {
+            return threadFactory("probe-") != null;
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    public static Optional<ExecutorService> newExecutor(String namePrefix) {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory(namePrefix));
+            log.info("Виртуальные потоки {} включены, диагностика закреплений: {}", namePrefix,
+                    System.getProperty("jdk.tracePinnedThreads", "выключена"));
+            return Optional.of(executor);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Виртуальные потоки недоступны в Java {}, используется пул потоков по умолчанию",
+                    Runtime.version().feature());
+            return Optional.empty();
+        }
+    }
+
+    private static ThreadFactory threadFactory(String namePrefix) throws ReflectiveOperationException {
+        Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    }
+}
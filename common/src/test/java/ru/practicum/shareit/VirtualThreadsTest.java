@@ -0,0 +1,26 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.threads.VirtualThreads;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void newExecutorDependsOnRuntime() throws Exception {
+        Optional<ExecutorService> executor = VirtualThreads.newExecutor("test-virtual-");
+
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+        assertEquals(VirtualThreads.isSupported(), executor.isPresent());
+        if (executor.isPresent()) {
+            String name = executor.get().submit(() -> Thread.currentThread().getName()).get();
+            executor.get().shutdown();
+            assertTrue(name.startsWith("test-virtual-"));
+        }
+    }
+}
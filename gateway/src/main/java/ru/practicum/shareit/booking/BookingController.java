@@ -2,10 +2,12 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -22,45 +24,48 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-											  @RequestParam(name = "state", defaultValue = "all") String stateParam,
-											  @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-											  @Positive @RequestParam(defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+													@RequestParam(name = "state", defaultValue = "all") String stateParam,
+													@PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+													@Positive @RequestParam(defaultValue = "10") Integer size,
+													@RequestParam(required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info("Получен запрос GET /bookings?state={}", state);
-		return bookingClient.getBookings(userId, state, from, size);
+		return bookingClient.getBookings(userId, state, from, size, cursor);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Получен запрос POST /items");
 		return bookingClient.bookItem(userId, requestDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-			@PathVariable Long bookingId) {
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+			@PathVariable Long bookingId,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 		log.info("Получен запрос GET /booking/{}", bookingId);
-		return bookingClient.getBooking(userId, bookingId);
+		return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
-													 @RequestParam(name = "state", defaultValue = "all") String stateParam,
-													 @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-													 @Positive @RequestParam(defaultValue = "10") Integer size) {
+	public Mono<ResponseEntity<Object>> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
+														   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+														   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+														   @Positive @RequestParam(defaultValue = "10") Integer size,
+														   @RequestParam(required = false) String cursor) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		log.info("Получен запрос GET /owner");
-		return bookingClient.getBookingsByOwner(userId, state, from, size);
+		return bookingClient.getBookingsByOwner(userId, state, from, size, cursor);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> setStatus(@RequestHeader("X-Sharer-User-Id") long userId,
-											@Positive @PathVariable long bookingId,
-											 @RequestParam boolean approved) {
+	public Mono<ResponseEntity<Object>> setStatus(@RequestHeader("X-Sharer-User-Id") long userId,
+												  @Positive @PathVariable long bookingId,
+												   @RequestParam boolean approved) {
 		log.info("Получен запрос PATCH /bookings/{}={}", bookingId, approved);
 		return bookingClient.setStatus(userId, bookingId, approved);
 	}
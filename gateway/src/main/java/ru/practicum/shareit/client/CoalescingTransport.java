@@ -0,0 +1,84 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+class CoalescingTransport implements ServerTransport {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final ServerTransport delegate;
+    private final AtomicLong writes;
+    private final ConcurrentMap<List<Object>, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter sent;
+    private final Counter coalesced;
+
+    CoalescingTransport(ServerTransport delegate, AtomicLong writes, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.writes = writes;
+        this.sent = requests(registry, "sent");
+        this.coalesced = requests(registry, "coalesced");
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                 @Nullable Object body) {
+        if (method != HttpMethod.GET) {
+            return Mono.defer(() -> {
+                writes.incrementAndGet();
+                return delegate.exchange(method, path, parameters, headers, body)
+                        .doFinally(signal -> writes.incrementAndGet());
+            });
+        }
+        return Mono.defer(() -> join(List.of(writes.get(), path, parameters != null ? parameters : Map.of(),
+                Objects.toString(headers.getFirst(USER_HEADER), ""),
+                Objects.toString(headers.getFirst(HttpHeaders.IF_NONE_MATCH), "")),
+                () -> delegate.exchange(method, path, parameters, headers, null)));
+    }
+
+    @Override
+    public boolean isPassthrough() {
+        return delegate.isPassthrough();
+    }
+
+    private Mono<ResponseEntity<Object>> join(List<Object> key, Supplier<Mono<ResponseEntity<Object>>> request) {
+        Mono<ResponseEntity<Object>> flight = inFlight.get(key);
+        if (flight != null) {
+            coalesced.increment();
+            return flight;
+        }
+        AtomicReference<Mono<ResponseEntity<Object>>> created = new AtomicReference<>();
+        created.set(request.get()
+                .doFinally(signal -> inFlight.remove(key, created.get()))
+                .share());
+        flight = inFlight.putIfAbsent(key, created.get());
+        if (flight != null) {
+            coalesced.increment();
+            return flight;
+        }
+        sent.increment();
+        return created.get();
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("shareit.gateway.requests.coalescing")
+                .description("GET-запросы к серверу, отправленные шлюзом или присоединенные к уже выполняющимся")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private static final String POOL_NAME = "shareit-server";
+
+    private final Timer leased;
+    private final Timer timedOut;
+
+    MeteredConnectionManager(MeterRegistry registry) {
+        this.leased = leaseTimer(registry, "leased");
+        this.timedOut = leaseTimer(registry, "timeout");
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, POOL_NAME).bindTo(registry);
+        Gauge.builder("shareit.gateway.pool.utilization", this, MeteredConnectionManager::utilization)
+                .description("Доля занятых соединений пула шлюза с сервером")
+                .tag("pool", POOL_NAME)
+                .register(registry);
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit unit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    HttpClientConnection connection = request.get(timeout, unit);
+                    leased.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    return connection;
+                } catch (ConnectionPoolTimeoutException e) {
+                    timedOut.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw e;
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private double utilization() {
+        PoolStats stats = getTotalStats();
+        return stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax();
+    }
+
+    private static Timer leaseTimer(MeterRegistry registry, String result) {
+        return Timer.builder("shareit.gateway.pool.lease")
+                .description("Ожидание свободного соединения с сервером в пуле шлюза")
+                .tag("pool", POOL_NAME)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
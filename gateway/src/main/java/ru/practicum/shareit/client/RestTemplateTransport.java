@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public class RestTemplateTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+    private final boolean passthrough;
+
+    public RestTemplateTransport(RestTemplate rest, boolean passthrough) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                 @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, parameters, new HttpEntity<>(body, headers)));
+    }
+
+    @Override
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                        HttpEntity<Object> requestEntity) {
+        Class<?> bodyType = passthrough ? byte[].class : Object.class;
+        try {
+            ResponseEntity<?> response = parameters != null
+                    ? rest.exchange(path, method, requestEntity, bodyType, parameters)
+                    : rest.exchange(path, method, requestEntity, bodyType);
+            return new ResponseEntity<>(response.getBody(), response.getHeaders(), response.getStatusCode());
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class ServerTransportFactory {
+
+    private final String serverUrl;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final boolean passthrough;
+    private final boolean coalescing;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong writes = new AtomicLong();
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public ServerTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  WebClient.Builder webClientBuilder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${shareit-gateway.passthrough.enabled:false}") boolean passthrough,
+                                  @Value("${shareit-gateway.coalescing.enabled:false}") boolean coalescing,
+                                  @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+                                  @Value("${shareit-gateway.http.max-per-route:200}") int maxPerRoute,
+                                  @Value("${shareit-gateway.http.idle-timeout:30s}") Duration idleTimeout,
+                                  @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+                                  @Value("${shareit-gateway.http.read-timeout:30s}") Duration readTimeout,
+                                  @Value("${shareit-gateway.http.connection-request-timeout:5s}")
+                                  Duration connectionRequestTimeout,
+                                  @Value("${shareit-gateway.reactive.enabled:false}") boolean reactive,
+                                  @Value("${shareit-gateway.reactive.max-connections:500}") int maxConnections,
+                                  @Value("${shareit-gateway.reactive.pending-acquire-max-count:1000}")
+                                  int pendingAcquireMaxCount,
+                                  @Value("${shareit-gateway.reactive.pending-acquire-timeout:5s}")
+                                  Duration pendingAcquireTimeout,
+                                  @Value("${shareit-gateway.reactive.response-timeout:30s}") Duration responseTimeout,
+                                  @Value("${shareit-gateway.reactive.max-in-memory-size:10MB}")
+                                  DataSize maxInMemorySize) {
+        this.serverUrl = serverUrl;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.passthrough = passthrough;
+        this.coalescing = coalescing;
+        this.meterRegistry = meterRegistry;
+        if (reactive) {
+            this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                    .maxConnections(maxConnections)
+                    .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                    .pendingAcquireTimeout(pendingAcquireTimeout)
+                    .metrics(true)
+                    .build();
+            this.webClient = webClientBuilder
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                            .responseTimeout(responseTimeout)))
+                    .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                    .build();
+            this.httpClient = null;
+            this.requestFactory = null;
+            log.info("Шлюз работает в неблокирующем режиме, соединений с сервером не более {}", maxConnections);
+        } else {
+            MeteredConnectionManager connectionManager = new MeteredConnectionManager(meterRegistry);
+            connectionManager.setMaxTotal(maxTotal);
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+            this.httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectTimeout((int) connectTimeout.toMillis())
+                            .setSocketTimeout((int) readTimeout.toMillis())
+                            .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                            .build())
+                    .evictExpiredConnections()
+                    .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+            this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            this.connectionProvider = null;
+            this.webClient = null;
+            log.info("Шлюз работает в блокирующем режиме, соединений с сервером не более {}", maxTotal);
+        }
+    }
+
+    public ServerTransport create(String prefix) {
+        ServerTransport transport = createTransport(new DefaultUriBuilderFactory(serverUrl + prefix));
+        return coalescing ? new CoalescingTransport(transport, writes, meterRegistry) : transport;
+    }
+
+    private ServerTransport createTransport(DefaultUriBuilderFactory uriBuilderFactory) {
+        if (webClient != null) {
+            return new WebClientTransport(webClient.mutate()
+                    .uriBuilderFactory(uriBuilderFactory)
+                    .build(), passthrough);
+        }
+        return new RestTemplateTransport(restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .requestFactory(() -> requestFactory)
+                .build(), passthrough);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                log.warn("Не удалось закрыть пул соединений с сервером: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public class WebClientTransport implements ServerTransport {
+
+    private final WebClient webClient;
+    private final boolean passthrough;
+
+    public WebClientTransport(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                 @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                 @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isError()) {
+                        return response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .map(bytes -> ResponseEntity.status(response.rawStatusCode()).<Object>body(bytes));
+                    }
+                    Class<?> bodyType = passthrough ? byte[].class : Object.class;
+                    return response.toEntity(bodyType)
+                            .map(entity -> new ResponseEntity<Object>(entity.getBody(), entity.getHeaders(),
+                                    entity.getStatusCode()));
+                });
+    }
+
+    @Override
+    public boolean isPassthrough() {
+        return passthrough;
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.ValidationException;
@@ -34,4 +36,9 @@ public class ErrorHandler {
     public void handlerInternalServerError(HttpServletResponse response) throws IOException {
         response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
     }
+
+    @ExceptionHandler({ResourceAccessException.class, WebClientRequestException.class})
+    public void handlerServiceUnavailable(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
 }
@@ -2,16 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -22,50 +26,67 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-id") long userId,
-                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                         @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-id") long userId,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                               @Positive @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /items");
-        return itemClient.getItems(userId, from, size);
+        return itemClient.getItems(userId, from, size, cursor);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItem(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> getItem(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                String ifNoneMatch) {
         log.info("Получен запрос GET /items/{}", id);
-        return itemClient.getItem(userId, id);
+        return itemClient.getItem(userId, id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(@RequestHeader("X-Sharer-User-id") long userId,
+                                                        @PathVariable Long id,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания");
+        }
+        log.info("Получен запрос GET /items/{}/availability", id);
+        return itemClient.getAvailability(userId, id, from, to);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-id") long userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-id") long userId,
+                                               @Valid @RequestBody ItemDto itemDto) {
         log.info("Получен запрос POST /items");
         return itemClient.createItem(userId, itemDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id,
-                       @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> update(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id,
+                             @RequestBody ItemDto itemDto) {
         log.info("Получен запрос PUT /items");
         return itemClient.updateItem(userId, id, itemDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> delete(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> delete(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id) {
         log.info("Получен запрос DELETE /items");
         return itemClient.deleteItem(userId, id);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searching(@RequestParam String text,
-                                            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                            @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> searching(@RequestParam String text,
+                                                  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                  @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("Получен запрос GET /search");
         return itemClient.searching(text, from, size);
     }
 
     @PostMapping("/{id}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id,
-                                 @Valid @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-id") long userId, @Valid @PathVariable Long id,
+                                       @Valid @RequestBody CommentDto commentDto) {
         log.info("Получен запрос POST /{}/comment", id);
         return itemClient.addComment(userId, id, commentDto);
     }
@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 import javax.validation.Valid;
@@ -22,32 +24,36 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-id") long userId,
-                                         @Valid @RequestBody RequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader("X-Sharer-User-id") long userId,
+                                               @Valid @RequestBody RequestDto requestDto) {
         log.info("Получен запрос POST /requests");
         return requestClient.createRequest(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByRequestorId(@RequestHeader("X-Sharer-User-id") long userId,
-                                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                               @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getAllByRequestorId(@RequestHeader("X-Sharer-User-id") long userId,
+                                                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                     @Positive @RequestParam(defaultValue = "10") int size,
+                                                                     @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /requests");
-        return requestClient.getRequestsByRequestor(userId, from, size);
+        return requestClient.getRequestsByRequestor(userId, from, size, cursor);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-id") long userId,
-                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                         @Positive @RequestParam(defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Object>> getAll(@RequestHeader("X-Sharer-User-id") long userId,
+                                               @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                               @Positive @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false) String cursor) {
         log.info("Получен запрос GET /requests/all");
-        return requestClient.getRequests(userId, from, size);
+        return requestClient.getRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-id") long userId,
-                                             @PathVariable Long requestId) {
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader("X-Sharer-User-id") long userId,
+                                                   @PathVariable Long requestId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                                   String ifNoneMatch) {
         log.info("Получен запрос GET /requests/{}", requestId);
-        return requestClient.getRequest(userId, requestId);
+        return requestClient.getRequest(userId, requestId, ifNoneMatch);
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.threads;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsExecutor() {
+        Optional<ExecutorService> executor = VirtualThreads.newExecutor("http-virtual-");
+        return protocolHandler -> executor.ifPresent(protocolHandler::setExecutor);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit;
+
+import com.sun.management.ThreadMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class GatewayAllocationBenchmark {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 100);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup", 2_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5_000);
+    private static final String ITEMS_JSON = IntStream.rangeClosed(1, ITEMS)
+            .mapToObj(id -> "{\"id\":" + id + ",\"name\":\"item" + id + "\",\"description\":\"description of item " +
+                    id + "\",\"available\":true,\"owner\":{\"id\":1,\"name\":\"owner\",\"email\":\"owner@mail.ru\"}," +
+                    "\"lastBooking\":null,\"nextBooking\":null,\"comments\":[]}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    static LoopResources loops;
+    static DisposableServer server;
+    static HttpClient client;
+
+    @BeforeAll
+    static void beforeAll() {
+        loops = LoopResources.create("benchmark");
+        server = HttpServer.create()
+                .runOn(loops)
+                .port(0)
+                .route(routes -> routes.get("/items", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(ITEMS_JSON))))
+                .bindNow();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        server.disposeNow();
+        loops.dispose();
+    }
+
+    @Test
+    void passthroughAllocatesLess() throws Exception {
+        long blocking = run("blocking");
+        long blockingPassthrough = run("blocking passthrough", "--shareit-gateway.passthrough.enabled=true");
+        long reactive = run("reactive", "--shareit-gateway.reactive.enabled=true");
+        long reactivePassthrough = run("reactive passthrough", "--shareit-gateway.reactive.enabled=true",
+                "--shareit-gateway.passthrough.enabled=true");
+
+        assertTrue(blockingPassthrough < blocking);
+        assertTrue(reactivePassthrough < reactive);
+    }
+
+    private long run(String mode, String... properties) throws Exception {
+        String[] args = new String[properties.length + 5];
+        args[0] = "--server.port=0";
+        args[1] = "--shareit-server.url=http://localhost:" + server.port();
+        args[2] = "--logging.level.org.springframework.web.client.RestTemplate=INFO";
+        args[3] = "--logging.level.ru.practicum.shareit=WARN";
+        args[4] = "--logging.level." + GatewayAllocationBenchmark.class.getName() + "=INFO";
+        System.arraycopy(properties, 0, args, 5, properties.length);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(args)) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items"))
+                    .header("X-Sharer-User-Id", "1")
+                    .build();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                send(request);
+            }
+
+            Map<Long, Long> before = gatewayAllocations();
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                send(request);
+            }
+            long micros = (System.nanoTime() - start) / 1_000 / REQUESTS;
+            long allocated = 0;
+            for (Map.Entry<Long, Long> thread : gatewayAllocations().entrySet()) {
+                allocated += thread.getValue() - before.getOrDefault(thread.getKey(), 0L);
+            }
+            long perRequest = allocated / REQUESTS;
+            log.info("gateway {}: items={} requests={} allocated={} bytes/request mean={}us",
+                    mode, ITEMS, REQUESTS, perRequest, micros);
+            return perRequest;
+        }
+    }
+
+    private void send(HttpRequest request) throws Exception {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, response.statusCode());
+    }
+
+    private Map<Long, Long> gatewayAllocations() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Map<Long, Long> allocations = new HashMap<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (name.contains("-exec-") || name.startsWith("reactor-http-")) {
+                allocations.put(thread.getId(), threads.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return allocations;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class GatewayCoalescingBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 500);
+    private static final int SERVER_DELAY_MILLIS = Integer.getInteger("benchmark.server-delay-millis", 200);
+    private static final String ITEM = "{\"id\":1,\"name\":\"item\",\"description\":\"description\",\"available\":true}";
+
+    static LoopResources loops;
+    static DisposableServer server;
+    static ConnectionProvider connectionProvider;
+    static WebClient client;
+    static final AtomicInteger upstreamRequests = new AtomicInteger();
+
+    @BeforeAll
+    static void beforeAll() {
+        loops = LoopResources.create("benchmark");
+        server = HttpServer.create()
+                .runOn(loops)
+                .port(0)
+                .route(routes -> routes.get("/items/{id}", (request, response) -> {
+                    upstreamRequests.incrementAndGet();
+                    return response.header("Content-Type", "application/json")
+                            .sendString(Mono.just(ITEM).delayElement(Duration.ofMillis(SERVER_DELAY_MILLIS)));
+                }))
+                .bindNow();
+        connectionProvider = ConnectionProvider.builder("benchmark")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        client = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                        .runOn(loops)
+                        .responseTimeout(Duration.ofMinutes(1))))
+                .build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionProvider.dispose();
+        server.disposeNow();
+        loops.dispose();
+    }
+
+    @Test
+    void identicalGetsShareUpstreamCalls() {
+        int plain = run("plain");
+        int coalesced = run("coalescing", "--shareit-gateway.coalescing.enabled=true");
+        int reactive = run("reactive coalescing", "--shareit-gateway.coalescing.enabled=true",
+                "--shareit-gateway.reactive.enabled=true");
+
+        assertEquals(REQUESTS, plain);
+        assertTrue(coalesced < plain);
+        assertTrue(reactive < plain);
+    }
+
+    private int run(String mode, String... properties) {
+        String[] args = Arrays.copyOf(new String[]{"--server.port=0",
+                "--shareit-server.url=http://localhost:" + server.port(),
+                "--shareit-gateway.http.max-total=" + CONCURRENCY,
+                "--shareit-gateway.http.max-per-route=" + CONCURRENCY,
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO",
+                "--logging.level.ru.practicum.shareit=WARN",
+                "--logging.level." + GatewayCoalescingBenchmark.class.getName() + "=INFO"}, 7 + properties.length);
+        System.arraycopy(properties, 0, args, 7, properties.length);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class).run(args)) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            upstreamRequests.set(0);
+            long start = System.nanoTime();
+            List<String> bodies = Flux.range(0, REQUESTS)
+                    .flatMap(i -> client.get()
+                            .uri("http://localhost:" + port + "/items/1")
+                            .header("X-Sharer-User-Id", "1")
+                            .retrieve()
+                            .bodyToMono(String.class), CONCURRENCY)
+                    .collectList()
+                    .block();
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertEquals(REQUESTS, bodies.size());
+            bodies.forEach(body -> assertEquals(ITEM, body));
+            int upstream = upstreamRequests.get();
+            double joined = context.getBean(MeterRegistry.class).find("shareit.gateway.requests.coalescing")
+                    .tag("result", "coalesced")
+                    .counters()
+                    .stream()
+                    .mapToDouble(Counter::count)
+                    .sum();
+            log.info("gateway {}: requests={} concurrency={} upstream={} coalesced={} time={}ms",
+                    mode, REQUESTS, CONCURRENCY, upstream, (long) joined, millis);
+            return upstream;
+        }
+    }
+}
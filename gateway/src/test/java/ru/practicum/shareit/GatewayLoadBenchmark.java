@@ -0,0 +1,173 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+import ru.practicum.shareit.threads.VirtualThreads;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class GatewayLoadBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 5_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup", 500);
+    private static final int SERVER_DELAY_MILLIS = Integer.getInteger("benchmark.server-delay-millis", 1_000);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 200);
+    private static final int SERVER_CONNECTIONS = Integer.getInteger("benchmark.server-connections", 1_000);
+    private static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}";
+
+    static LoopResources loops;
+    static DisposableServer server;
+    static ConnectionProvider connectionProvider;
+    static WebClient client;
+
+    @BeforeAll
+    static void beforeAll() {
+        loops = LoopResources.create("benchmark");
+        server = HttpServer.create()
+                .runOn(loops)
+                .port(0)
+                .route(routes -> routes.get("/users/{id}", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(USER).delayElement(Duration.ofMillis(SERVER_DELAY_MILLIS)))))
+                .bindNow();
+        connectionProvider = ConnectionProvider.builder("benchmark")
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        client = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                        .runOn(loops)
+                        .responseTimeout(Duration.ofMinutes(1))))
+                .build();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        connectionProvider.dispose();
+        server.disposeNow();
+        loops.dispose();
+    }
+
+    @Test
+    void threadingModes() {
+        Result platform = run("platform");
+        Result reactive = run("reactive", "--shareit-gateway.reactive.enabled=true");
+
+        assertEquals(0, reactive.errors);
+        assertTrue(reactive.throughput > platform.throughput);
+        if (VirtualThreads.isSupported()) {
+            Result virtual = run("virtual", "--shareit-gateway.threads.virtual.enabled=true");
+            assertEquals(0, virtual.errors);
+            assertTrue(virtual.throughput > platform.throughput);
+        } else {
+            log.info("gateway virtual: skipped, virtual threads need Java 21+, running {}",
+                    Runtime.version().feature());
+        }
+    }
+
+    private Result run(String mode, String... properties) {
+        List<String> args = new ArrayList<>(List.of("--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--shareit-server.url=http://localhost:" + server.port(),
+                "--shareit-gateway.http.max-total=" + SERVER_CONNECTIONS,
+                "--shareit-gateway.http.max-per-route=" + SERVER_CONNECTIONS,
+                "--shareit-gateway.http.read-timeout=1m",
+                "--shareit-gateway.http.connection-request-timeout=1m",
+                "--shareit-gateway.reactive.max-connections=" + SERVER_CONNECTIONS,
+                "--shareit-gateway.reactive.pending-acquire-max-count=" + REQUESTS,
+                "--shareit-gateway.reactive.pending-acquire-timeout=1m",
+                "--logging.level.org.springframework.web.client.RestTemplate=INFO",
+                "--logging.level.ru.practicum.shareit=WARN",
+                "--logging.level." + GatewayLoadBenchmark.class.getName() + "=INFO"));
+        args.addAll(List.of(properties));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run(args.toArray(new String[0]))) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String url = "http://localhost:" + port + "/users/1";
+            load(url, WARMUP_REQUESTS);
+
+            long[] latencies = new long[REQUESTS];
+            AtomicInteger errors = new AtomicInteger();
+            long start = System.nanoTime();
+            Flux.range(0, REQUESTS)
+                    .flatMap(i -> request(url, latencies, i, errors), CONCURRENCY)
+                    .blockLast();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            Result result = new Result(errors.get(), REQUESTS / seconds);
+            log.info("gateway {}: requests={} concurrency={} tomcat-threads={} p50={}ms p99={}ms errors={} " +
+                            "throughput={} req/s", mode, REQUESTS, CONCURRENCY, TOMCAT_THREADS,
+                    latencies[REQUESTS / 2] / 1_000_000, latencies[(int) Math.ceil(REQUESTS * 0.99) - 1] / 1_000_000,
+                    result.errors, Math.round(result.throughput));
+            Timer lease = context.getBean(MeterRegistry.class).find("shareit.gateway.pool.lease")
+                    .tag("result", "leased")
+                    .timer();
+            if (lease != null) {
+                log.info("gateway {} pool: leases={} mean-wait={}ms max-wait={}ms", mode, lease.count(),
+                        String.format("%.1f", lease.mean(TimeUnit.MILLISECONDS)),
+                        String.format("%.1f", lease.max(TimeUnit.MILLISECONDS)));
+            }
+            return result;
+        }
+    }
+
+    private void load(String url, int requests) {
+        Flux.range(0, requests)
+                .flatMap(i -> request(url, new long[requests], i, new AtomicInteger()), CONCURRENCY)
+                .blockLast();
+    }
+
+    private Mono<Integer> request(String url, long[] latencies, int index, AtomicInteger errors) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get()
+                    .uri(url)
+                    .header("X-Sharer-User-Id", "1")
+                    .exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()))
+                    .onErrorReturn(-1)
+                    .doOnNext(status -> {
+                        latencies[index] = System.nanoTime() - start;
+                        if (status != 200) {
+                            errors.incrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    private static class Result {
+        final int errors;
+        final double throughput;
+
+        Result(int errors, double throughput) {
+            this.errors = errors;
+            this.throughput = throughput;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit;
+
+import okhttp3.mockwebserver.MockResponse;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+abstract class GatewayPassthroughTest extends GatewayProxyTest {
+
+    private static final String ITEMS_JSON = IntStream.rangeClosed(1, 100)
+            .mapToObj(id -> "{\"id\": " + id + ", \"name\": \"вещь " + id + "\", \"available\": true}")
+            .collect(Collectors.joining(",\n", "[", "]"));
+
+    @Test
+    @Order(10)
+    void passesBodyAndHeadersThrough() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8")
+                .setHeader(HttpHeaders.ETAG, "\"7-abc\"")
+                .setHeader(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .setHeader("Keep-Alive", "timeout=60")
+                .setChunkedBody(ITEMS_JSON, 512));
+
+        perform(get("/items").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/json;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-abc\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().doesNotExist("Keep-Alive"))
+                .andExpect(header().doesNotExist(HttpHeaders.TRANSFER_ENCODING))
+                .andExpect(content().bytes(ITEMS_JSON.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("/items?from=0&size=10", takeRequest().getPath());
+    }
+
+    @Test
+    @Order(11)
+    void relaysErrorBodyAsBytes() throws Exception {
+        String error = "{\"error\" :  \"Вещь с id=5 отсутствует в списке\"}";
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(error));
+
+        perform(get("/items/5").header("X-Sharer-User-Id", 1))
+                .andExpect(status().isNotFound())
+                .andExpect(content().bytes(error.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("/items/5", takeRequest().getPath());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+abstract class GatewayProxyTest {
+
+    static MockWebServer server;
+
+    @Autowired
+    MockMvc mvc;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() throws IOException {
+        server.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getPort());
+    }
+
+    @Test
+    @Order(1)
+    void proxiesSuccessfulResponse() throws Exception {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}"));
+
+        perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.name").value("user"));
+
+        RecordedRequest request = takeRequest();
+        assertEquals("GET", request.getMethod());
+        assertEquals("/users/1", request.getPath());
+    }
+
+    @Test
+    @Order(2)
+    void relaysClientErrorWithBody() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(409)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"error\":\"Пользователь с таким email уже существует\"}"));
+
+        perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"user\",\"email\":\"user@mail.ru\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().bytes("{\"error\":\"Пользователь с таким email уже существует\"}"
+                        .getBytes(StandardCharsets.UTF_8)));
+
+        RecordedRequest request = takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("{\"id\":0,\"name\":\"user\",\"email\":\"user@mail.ru\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    @Order(3)
+    void relaysNotModifiedWithEntityTag() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(304)
+                .setHeader(HttpHeaders.ETAG, "\"1-0\""));
+
+        perform(get("/requests/1")
+                .header("X-Sharer-User-Id", 2)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-0\""))
+                .andExpect(content().string(""));
+
+        RecordedRequest request = takeRequest();
+        assertEquals("/requests/1", request.getPath());
+        assertEquals("2", request.getHeader("X-Sharer-User-Id"));
+        assertEquals("\"1-0\"", request.getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    void unreachableServerIsServiceUnavailable() throws Exception {
+        server.shutdown();
+
+        perform(get("/users/1"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(result)) : actions;
+    }
+
+    static RecordedRequest takeRequest() throws InterruptedException {
+        return server.takeRequest(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {"shareit-gateway.reactive.enabled=true", "shareit-gateway.passthrough.enabled=true"})
+class ReactiveGatewayPassthroughTest extends GatewayPassthroughTest {
+}
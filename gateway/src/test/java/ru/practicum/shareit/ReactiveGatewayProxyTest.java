@@ -0,0 +1,7 @@
+package ru.practicum.shareit;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "shareit-gateway.reactive.enabled=true")
+class ReactiveGatewayProxyTest extends GatewayProxyTest {
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoalescingTransportTest {
+
+    private static final Map<String, Object> PARAMETERS = Map.of("from", 0, "size", 10);
+
+    StubTransport stub;
+    SimpleMeterRegistry registry;
+    CoalescingTransport transport;
+
+    @BeforeEach
+    void beforeEach() {
+        stub = new StubTransport();
+        registry = new SimpleMeterRegistry();
+        transport = new CoalescingTransport(stub, new AtomicLong(), registry);
+    }
+
+    @Test
+    void concurrentIdenticalGetsShareOneCall() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = get(1L, null);
+        CompletableFuture<ResponseEntity<Object>> second = get(1L, null);
+
+        assertEquals(1, stub.calls.size());
+        ResponseEntity<Object> response = ResponseEntity.ok("[]");
+        stub.complete(0, response);
+
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertEquals(1.0, count("sent"));
+        assertEquals(1.0, count("coalesced"));
+    }
+
+    @Test
+    void differentUsersAndEntityTagsAreNotShared() {
+        get(1L, null);
+        get(2L, null);
+        get(1L, "\"1-a\"");
+        get(1L, "\"1-b\"");
+
+        assertEquals(4, stub.calls.size());
+        assertEquals("2", stub.calls.get(1).getFirst("X-Sharer-User-Id"));
+        assertEquals("\"1-b\"", stub.calls.get(3).getIfNoneMatch().get(0));
+        assertEquals(4.0, count("sent"));
+        assertEquals(0.0, count("coalesced"));
+    }
+
+    @Test
+    void getAfterWriteDoesNotJoinEarlierFlight() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> before = get(1L, null);
+        CompletableFuture<ResponseEntity<Object>> write = transport.exchange(HttpMethod.PATCH, "/items/1", null,
+                headers(1L, null), Map.of("name", "вещь")).toFuture();
+        stub.complete(1, ResponseEntity.ok().build());
+        write.get();
+        CompletableFuture<ResponseEntity<Object>> after = get(1L, null);
+
+        assertEquals(3, stub.calls.size());
+        stub.complete(0, ResponseEntity.ok("old"));
+        stub.complete(2, ResponseEntity.ok("new"));
+        assertEquals("old", before.get().getBody());
+        assertEquals("new", after.get().getBody());
+    }
+
+    @Test
+    void getDuringWriteDoesNotJoinEarlierFlight() {
+        get(1L, null);
+        transport.exchange(HttpMethod.DELETE, "/items/1", null, headers(1L, null), null).subscribe();
+        get(1L, null);
+
+        assertEquals(3, stub.calls.size());
+    }
+
+    @Test
+    void flightIsRemovedAfterError() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> failed = get(1L, null);
+        stub.fail(0, new IllegalStateException("Сервер недоступен"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+
+        CompletableFuture<ResponseEntity<Object>> retried = get(1L, null);
+        assertEquals(2, stub.calls.size());
+        stub.complete(1, ResponseEntity.ok("[]"));
+        assertEquals(HttpStatus.OK, retried.get().getStatusCode());
+    }
+
+    @Test
+    void flightIsRemovedAfterResponse() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> first = get(1L, null);
+        stub.complete(0, ResponseEntity.ok("[]"));
+        first.get();
+        get(1L, null);
+
+        assertEquals(2, stub.calls.size());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> get(long userId, @Nullable String ifNoneMatch) {
+        return transport.exchange(HttpMethod.GET, "/items?from={from}&size={size}", PARAMETERS,
+                headers(userId, ifNoneMatch), null).toFuture();
+    }
+
+    private static HttpHeaders headers(long userId, @Nullable String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return headers;
+    }
+
+    private double count(String result) {
+        return registry.get("shareit.gateway.requests.coalescing").tag("result", result).counter().count();
+    }
+
+    static class StubTransport implements ServerTransport {
+
+        final List<HttpHeaders> calls = new ArrayList<>();
+        final List<Sinks.One<ResponseEntity<Object>>> responses = new ArrayList<>();
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path,
+                                                     @Nullable Map<String, Object> parameters, HttpHeaders headers,
+                                                     @Nullable Object body) {
+            Sinks.One<ResponseEntity<Object>> response = Sinks.one();
+            calls.add(headers);
+            responses.add(response);
+            return response.asMono();
+        }
+
+        @Override
+        public boolean isPassthrough() {
+            return false;
+        }
+
+        void complete(int call, ResponseEntity<Object> response) {
+            responses.get(call).tryEmitValue(response);
+        }
+
+        void fail(int call, Throwable error) {
+            responses.get(call).tryEmitError(error);
+        }
+    }
+}
@@ -3,12 +3,14 @@ package ru.practicum.shareit.booking.controller;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -23,8 +25,13 @@ public class BookingController {
     public List<Booking> getAll(@RequestHeader("X-Sharer-User-id") Long id,
                                 @RequestParam(defaultValue = "ALL") State state,
                                 @RequestParam(defaultValue = "0") int from,
-                                @RequestParam(defaultValue = "10") int size) {
+                                @RequestParam(defaultValue = "10") int size,
+                                @RequestParam(required = false) String cursor,
+                                HttpServletResponse response) {
         log.info("Получен запрос GET /bookings?state={}", state);
+        if (cursor != null) {
+            return bookingService.findPageByRenterId(id, state, cursor, size).writeTo(response);
+        }
         return bookingService.findAllByRenterId(id, state, from, size);
     }
 
@@ -32,14 +39,23 @@ public class BookingController {
     public List<Booking> getAllByOwnerId(@RequestHeader("X-Sharer-User-id") Long id,
                                          @RequestParam(defaultValue = "ALL") State state,
                                          @RequestParam(defaultValue = "0") int from,
-                                         @RequestParam(defaultValue = "10") int size) {
+                                         @RequestParam(defaultValue = "10") int size,
+                                         @RequestParam(required = false) String cursor,
+                                         HttpServletResponse response) {
         log.info("Получен запрос GET /owner");
+        if (cursor != null) {
+            return bookingService.findPageByOwnerId(id, state, cursor, size).writeTo(response);
+        }
         return bookingService.findAllByOwnerId(id, state, from, size);
     }
 
     @GetMapping("/{id}")
-    public Booking get(@RequestHeader("X-Sharer-User-id") long userId, @PathVariable Long id) {
+    public Booking get(@RequestHeader("X-Sharer-User-id") long userId, @PathVariable Long id, WebRequest request) {
         log.info("Получен запрос GET /booking/{}", id);
+        String tag = bookingService.getEntityTag(id, userId);
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
         return bookingService.get(id, userId);
     }
 
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingVersionView {
+
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Long getVersion();
+}
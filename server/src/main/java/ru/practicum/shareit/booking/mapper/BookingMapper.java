@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -29,4 +30,18 @@ public class BookingMapper {
         );
     }
 
+    public static BookingItemDto toLastBookingDto(LastAndNextBookingView view) {
+        if (view == null || view.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingItemDto(view.getLastBookingId(), view.getLastBookerId());
+    }
+
+    public static BookingItemDto toNextBookingDto(LastAndNextBookingView view) {
+        if (view == null || view.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingItemDto(view.getNextBookingId(), view.getNextBookerId());
+    }
+
 }
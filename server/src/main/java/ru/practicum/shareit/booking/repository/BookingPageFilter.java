@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingPageFilter {
+
+    private final Collection<Status> statuses;
+    private final LocalDateTime startFrom;
+    private final LocalDateTime startTo;
+    private final LocalDateTime endFrom;
+    private final LocalDateTime endTo;
+    private final LocalDateTime cursorStart;
+    private final Long cursorId;
+
+    public static BookingPageFilter of(State state, LocalDateTime now, Cursor cursor) {
+        Set<Status> statuses = EnumSet.allOf(Status.class);
+        LocalDateTime startFrom = Cursor.MIN_TIME;
+        LocalDateTime startTo = Cursor.MAX_TIME;
+        LocalDateTime endFrom = Cursor.MIN_TIME;
+        LocalDateTime endTo = Cursor.MAX_TIME;
+        switch (state) {
+            case ALL:
+                break;
+            case FUTURE:
+                startFrom = now;
+                break;
+            case PAST:
+                endTo = now;
+                break;
+            case CURRENT:
+                startTo = now;
+                endFrom = now;
+                break;
+            case WAITING:
+                statuses = EnumSet.of(Status.WAITING);
+                break;
+            case REJECTED:
+                statuses = EnumSet.of(Status.REJECTED);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        return new BookingPageFilter(statuses, startFrom, startTo, endFrom, endTo, Cursor.timeBefore(cursor),
+                Cursor.idBefore(cursor));
+    }
+}
@@ -1,48 +1,192 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Page<Booking> findAllByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                             LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long bookerId, Status status, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdOrderByStartDesc(Long itemOwnerId, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long itemOwnerId, LocalDateTime start,
-                                                                                 LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(Long itemOwnerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(Long itemOwnerId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findAllByItem_OwnerIdAndStatusOrderByStartDesc(Long itemOwnerId, Status status, Pageable pageable);
-
-    List<Booking> findAllByItemIdAndAndBooker_IdAndEndBefore(Long itemId, Long userId, LocalDateTime
-            time);
-
+    String GRAPH = "Booking.full";
+
+    String OWNER_ITEMS = "b.item.id in (select i.id from Item i where i.owner.id = :ownerId) ";
+
+    String PAGE_FILTER = "and b.status in :#{#filter.statuses} " +
+            "and b.start > :#{#filter.startFrom} and b.start < :#{#filter.startTo} " +
+            "and b.end > :#{#filter.endFrom} and b.end < :#{#filter.endTo} " +
+            "and (b.start < :#{#filter.cursorStart} " +
+            "or (b.start = :#{#filter.cursorStart} and b.id < :#{#filter.cursorId})) ";
+
+    @Override
+    @EntityGraph(GRAPH)
+    Optional<Booking> findById(Long id);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.booker.id = :bookerId " +
+            "order by b.start desc")
+    Slice<Booking> findAllByBookerIdOrderByStartDesc(@Param("bookerId") Long bookerId, Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.booker.id = :bookerId and b.start < :start and b.end > :end " +
+            "order by b.start desc")
+    Slice<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                                             @Param("start") LocalDateTime start,
+                                                                             @Param("end") LocalDateTime end,
+                                                                             Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.booker.id = :bookerId and b.end < :end " +
+            "order by b.start desc")
+    Slice<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                                 @Param("end") LocalDateTime end,
+                                                                 Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.booker.id = :bookerId and b.start > :start " +
+            "order by b.start desc")
+    Slice<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                                  @Param("start") LocalDateTime start,
+                                                                  Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.booker.id = :bookerId and b.status = :status " +
+            "order by b.start desc")
+    Slice<Booking> findAllByBookerIdAndStatusOrderByStartDesc(@Param("bookerId") Long bookerId,
+                                                              @Param("status") Status status,
+                                                              Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where " + OWNER_ITEMS +
+            "order by b.start desc")
+    Slice<Booking> findAllByItem_OwnerIdOrderByStartDesc(@Param("ownerId") Long itemOwnerId, Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where " + OWNER_ITEMS + "and b.start < :start and b.end > :end " +
+            "order by b.start desc")
+    Slice<Booking> findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(@Param("ownerId") Long itemOwnerId,
+                                                                                 @Param("start") LocalDateTime start,
+                                                                                 @Param("end") LocalDateTime end,
+                                                                                 Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where " + OWNER_ITEMS + "and b.end < :end " +
+            "order by b.start desc")
+    Slice<Booking> findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(@Param("ownerId") Long itemOwnerId,
+                                                                     @Param("end") LocalDateTime end,
+                                                                     Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where " + OWNER_ITEMS + "and b.start > :start " +
+            "order by b.start desc")
+    Slice<Booking> findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(@Param("ownerId") Long itemOwnerId,
+                                                                      @Param("start") LocalDateTime start,
+                                                                      Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where " + OWNER_ITEMS + "and b.status = :status " +
+            "order by b.start desc")
+    Slice<Booking> findAllByItem_OwnerIdAndStatusOrderByStartDesc(@Param("ownerId") Long itemOwnerId,
+                                                                  @Param("status") Status status,
+                                                                  Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.booker.id = :bookerId " +
+            PAGE_FILTER +
+            "order by b.start desc, b.id desc")
+    List<Booking> findBookerPage(@Param("bookerId") Long bookerId, @Param("filter") BookingPageFilter filter,
+                                 Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where " + OWNER_ITEMS +
+            PAGE_FILTER +
+            "order by b.start desc, b.id desc")
+    List<Booking> findOwnerPage(@Param("ownerId") Long ownerId, @Param("filter") BookingPageFilter filter,
+                                Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select b from Booking b " +
+            "where b.item.id = :itemId and b.booker.id = :userId and b.end < :time")
+    List<Booking> findAllByItemIdAndAndBooker_IdAndEndBefore(@Param("itemId") Long itemId,
+                                                             @Param("userId") Long userId,
+                                                             @Param("time") LocalDateTime time);
+
+    @EntityGraph(GRAPH)
     Booking findByItemAndEndBeforeOrderByEndDesc(Item item, LocalDateTime today);
 
+    @EntityGraph(GRAPH)
     Booking findByItemAndStartAfterOrderByStart(Item item, LocalDateTime today);
 
-    List<Booking> findAllByStatusOrderByStartDesc(Status status);
-
-    List<Booking> findAllByItem_IdOrderByStartDesc(Long itemId);
-
+    @Query(value = "SELECT t.item_id AS itemId, " +
+            "MAX(CASE WHEN t.kind = 'LAST' THEN t.id END) AS lastBookingId, " +
+            "MAX(CASE WHEN t.kind = 'LAST' THEN t.booker_id END) AS lastBookerId, " +
+            "MAX(CASE WHEN t.kind = 'NEXT' THEN t.id END) AS nextBookingId, " +
+            "MAX(CASE WHEN t.kind = 'NEXT' THEN t.booker_id END) AS nextBookerId " +
+            "FROM (" +
+            "SELECT b.item_id, b.id, b.booker_id, 'LAST' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC, b.id DESC) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status IN (:statuses) AND b.end_date < :now " +
+            "UNION ALL " +
+            "SELECT b.item_id, b.id, b.booker_id, 'NEXT' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status IN (:statuses) AND b.start_date > :now" +
+            ") t " +
+            "WHERE t.rn = 1 " +
+            "GROUP BY t.item_id",
+            nativeQuery = true)
+    List<LastAndNextBookingView> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                         @Param("statuses") Collection<String> statuses,
+                                                         @Param("now") LocalDateTime now);
+
+    @Query("select min(case when b.start > :now then b.start else b.end end) from Booking b " +
+            "where b.item.id = :itemId and b.end > :now")
+    LocalDateTime findNextBoundary(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("select b.booker.id as bookerId, i.owner.id as ownerId, " +
+            "b.version + i.version + u.version + o.version + coalesce(r.version, 0) + coalesce(q.version, 0) " +
+            "as version " +
+            "from Booking b join b.item i join b.booker u join i.owner o " +
+            "left join i.itemRequest r left join r.requestor q " +
+            "where b.id = :bookingId")
+    Optional<BookingVersionView> findViewVersionById(@Param("bookingId") Long bookingId);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses")
+    List<BookingIntervalView> findIntervals(@Param("itemId") Long itemId,
+                                            @Param("statuses") Collection<Status> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :bookingId and b.status = :expected")
+    int updateStatus(@Param("bookingId") Long bookingId, @Param("expected") Status expected,
+                     @Param("status") Status status);
 }
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+@Component
+@Slf4j
+public class AvailabilityIndex {
+
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final List<Status> ACTIVE = List.of(Status.WAITING, Status.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Cache<Long, ItemSchedule> schedules;
+    private final Lock[] locks;
+
+    public AvailabilityIndex(BookingRepository bookingRepository, ItemRepository itemRepository,
+                             @Value("${shareit.bookings.availability.maximum-size:10000}") long maximumSize,
+                             @Value("${shareit.bookings.availability.lock-stripes:256}") int lockStripes) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.locks = new Lock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Lock lock = lock(itemId);
+        lock.lock();
+        try {
+            ItemSchedule schedule = schedule(itemId);
+            return schedule != null && schedule.isFree(start, end);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Optional<List<FreeIntervalDto>> findFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Lock lock = lock(itemId);
+        lock.lock();
+        try {
+            return Optional.ofNullable(schedule(itemId))
+                    .map(schedule -> schedule.freeRanges(from, to));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Booking book(Booking booking, UnaryOperator<Booking> save) {
+        Long itemId = booking.getItem().getId();
+        Lock lock = lock(itemId);
+        lock.lock();
+        try {
+            ItemSchedule schedule = schedule(itemId);
+            if (schedule == null) {
+                return save.apply(booking);
+            }
+            if (!schedule.isFree(booking.getStart(), booking.getEnd())) {
+                log.info("ValidationException (Предмет с id = {} уже забронирован на эти даты)", itemId);
+                throw new ValidationException("Предмет уже забронирован на эти даты");
+            }
+            Booking saved;
+            try {
+                saved = save.apply(booking);
+            } catch (DataIntegrityViolationException e) {
+                String cause = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                if (!cause.contains(OVERLAP_CONSTRAINT)) {
+                    throw e;
+                }
+                schedules.invalidate(itemId);
+                log.info("ValidationException (Предмет с id = {} забронирован на эти даты другим узлом)", itemId);
+                throw new ValidationException("Предмет уже забронирован на эти даты");
+            }
+            schedule.add(saved.getId(), saved.getStart(), saved.getEnd());
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void update(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Lock lock = lock(itemId);
+        lock.lock();
+        try {
+            ItemSchedule schedule = schedules.getIfPresent(itemId);
+            if (schedule == null) {
+                return;
+            }
+            if (ACTIVE.contains(booking.getStatus())) {
+                schedule.add(booking.getId(), booking.getStart(), booking.getEnd());
+            } else {
+                schedule.remove(booking.getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void evict(Long itemId) {
+        schedules.invalidate(itemId);
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.isRemote()) {
+            schedules.invalidate(event.getItemId());
+        }
+    }
+
+    @EventListener
+    public void onCachesReset(CachesResetEvent event) {
+        schedules.invalidateAll();
+    }
+
+    private Lock lock(Long itemId) {
+        return locks[Math.floorMod(Long.hashCode(itemId), locks.length)];
+    }
+
+    private ItemSchedule schedule(Long itemId) {
+        return schedules.get(itemId, this::load);
+    }
+
+    private ItemSchedule load(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            return null;
+        }
+        ItemSchedule schedule = new ItemSchedule();
+        for (BookingIntervalView interval : bookingRepository.findIntervals(itemId, ACTIVE)) {
+            schedule.add(interval.getId(), interval.getStart(), interval.getEnd());
+        }
+        log.debug("Расписание предмета с id = {} загружено, броней: {}", itemId, schedule.size());
+        return schedule;
+    }
+}
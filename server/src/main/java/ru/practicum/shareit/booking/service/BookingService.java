@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -13,7 +14,13 @@ public interface BookingService {
 
     Booking get(Long id, Long userId);
 
+    String getEntityTag(Long id, Long userId);
+
     List<Booking> findAllByRenterId(Long id, State state, Integer from, Integer size);
 
     List<Booking> findAllByOwnerId(Long id, State state, Integer from, Integer size);
+
+    CursorPage<Booking> findPageByRenterId(Long id, State state, String cursor, Integer size);
+
+    CursorPage<Booking> findPageByOwnerId(Long id, State state, String cursor, Integer size);
 }
@@ -2,17 +2,26 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingVersionView;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingPageFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.cache.EntityExistenceFilter;
+import ru.practicum.shareit.cache.EntityVersions;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.service.UserResolver;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,7 +34,11 @@ public class BookingServiceImpl implements BookingService {
 
     BookingRepository bookingRepository;
     ItemRepository itemRepository;
-    UserRepository userRepository;
+    UserResolver userResolver;
+    ApplicationEventPublisher eventPublisher;
+    EntityExistenceFilter existenceFilter;
+    AvailabilityIndex availabilityIndex;
+    EntityVersions entityVersions;
 
     @Override
     public Booking create(Booking booking, Long bookerId) {
@@ -33,7 +46,7 @@ public class BookingServiceImpl implements BookingService {
             log.info("ValidationException (Нельзя завершить бронь раньше ее регистрации)");
             throw new IllegalArgumentException("Завершение брони раньше ее регистрации");
         }
-        booking.setBooker(userRepository.findById(bookerId).get());
+        booking.setBooker(userResolver.findById(bookerId).get());
         Optional<Item> item = itemRepository.findById(booking.getItem().getId());
         if (item.isPresent()) {
             booking.setItem(item.get());
@@ -46,7 +59,10 @@ public class BookingServiceImpl implements BookingService {
             }
             booking.setItem(booking.getItem());
             booking.setStatus(Status.WAITING);
-            return bookingRepository.save(booking);
+            Booking createBooking = availabilityIndex.book(booking, bookingRepository::save);
+            entityVersions.incrementItem(item.get().getId());
+            eventPublisher.publishEvent(new ItemChangedEvent(item.get().getId()));
+            return createBooking;
         } else {
             log.info("Предмес с id = {} отсутствует в списке", booking.getItem().getId());
             throw new EntityNotFoundException(String.format("Предмет с id=%d отсутствует в списке",
@@ -68,12 +84,23 @@ public class BookingServiceImpl implements BookingService {
                     case CANCELED:
                         throw new IllegalArgumentException("Статус уже был принят как 'CANCELED'");
                     case WAITING:
-                        if (approved) {
-                            booking.get().setStatus(Status.APPROVED);
-                        } else {
-                            booking.get().setStatus(Status.REJECTED);
+                        Status target = approved ? Status.APPROVED : Status.REJECTED;
+                        if (bookingRepository.updateStatus(id, Status.WAITING, target) == 0) {
+                            Status current = bookingRepository.findById(id)
+                                    .map(Booking::getStatus)
+                                    .orElseThrow(() -> new EntityNotFoundException(
+                                            String.format("Бронь с id=%d отсутствует в списке", id)));
+                            log.info("Статус брони с id = {} уже изменен параллельным запросом на '{}'", id, current);
+                            throw new OptimisticLockingFailureException(String.format(
+                                    "Статус уже был принят как '%s'", current));
                         }
-                        return bookingRepository.save(booking.get());
+                        Booking updateBooking = bookingRepository.findById(id)
+                                .orElseThrow(() -> new EntityNotFoundException(
+                                        String.format("Бронь с id=%d отсутствует в списке", id)));
+                        availabilityIndex.update(updateBooking);
+                        entityVersions.incrementItem(updateBooking.getItem().getId());
+                        eventPublisher.publishEvent(new ItemChangedEvent(updateBooking.getItem().getId()));
+                        return updateBooking;
                     default:
                         throw new IllegalArgumentException("Unknown status: " + status);
                 }
@@ -88,7 +115,7 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking get(Long id, Long userId) {
-        Optional<Booking> booking = bookingRepository.findById(id);
+        Optional<Booking> booking = existenceFilter.find(Booking.class, id, bookingRepository::findById);
         if (booking.isPresent()) {
             if (booking.get().getBooker().getId().equals(userId) ||
                     booking.get().getItem().getOwner().getId().equals(userId)) {
@@ -102,10 +129,23 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public String getEntityTag(Long id, Long userId) {
+        if (!existenceFilter.mightExist(Booking.class, id)) {
+            return null;
+        }
+        Optional<BookingVersionView> version = bookingRepository.findViewVersionById(id);
+        if (version.isEmpty() || !(version.get().getBookerId().equals(userId) ||
+                version.get().getOwnerId().equals(userId))) {
+            return null;
+        }
+        return id + "-" + version.get().getVersion();
+    }
+
     @Override
     public List<Booking> findAllByRenterId(Long renterId, State state, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        if (userRepository.findById(renterId).isPresent()) {
+        if (userResolver.findById(renterId).isPresent()) {
             LocalDateTime now = LocalDateTime.now();
             switch (state) {
                 case ALL:
@@ -139,7 +179,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<Booking> findAllByOwnerId(Long ownerId, State state, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        if (userRepository.findById(ownerId).isPresent()) {
+        if (userResolver.findById(ownerId).isPresent()) {
             LocalDateTime now = LocalDateTime.now();
             switch (state) {
                 case ALL:
@@ -169,4 +209,30 @@ public class BookingServiceImpl implements BookingService {
                     "он отсутствует в списке", ownerId));
         }
     }
+
+    @Override
+    public CursorPage<Booking> findPageByRenterId(Long renterId, State state, String cursor, Integer size) {
+        if (userResolver.findById(renterId).isEmpty()) {
+            log.info("EntityNotFoundException (Невозможно найти бронь у пользователя с id = {}, т.к. он отсутствует " +
+                    "в списке)", renterId);
+            throw new EntityNotFoundException(String.format("Невозможно найти бронь у пользователя с id = %d, т.к. " +
+                    "он отсутствует в списке", renterId));
+        }
+        BookingPageFilter filter = BookingPageFilter.of(state, LocalDateTime.now(), Cursor.decode(cursor));
+        return CursorPage.of(bookingRepository.findBookerPage(renterId, filter, CursorPage.limit(size)), size,
+                booking -> Cursor.encode(booking.getStart(), booking.getId()));
+    }
+
+    @Override
+    public CursorPage<Booking> findPageByOwnerId(Long ownerId, State state, String cursor, Integer size) {
+        if (userResolver.findById(ownerId).isEmpty()) {
+            log.info("EntityNotFoundException (Невозможно найти бронь у пользователя с id = {}, т.к. он отсутствует " +
+                    "в списке)", ownerId);
+            throw new EntityNotFoundException(String.format("Невозможно найти бронь у пользователя с id = %d, т.к. " +
+                    "он отсутствует в списке", ownerId));
+        }
+        BookingPageFilter filter = BookingPageFilter.of(state, LocalDateTime.now(), Cursor.decode(cursor));
+        return CursorPage.of(bookingRepository.findOwnerPage(ownerId, filter, CursorPage.limit(size)), size,
+                booking -> Cursor.encode(booking.getStart(), booking.getId()));
+    }
 }
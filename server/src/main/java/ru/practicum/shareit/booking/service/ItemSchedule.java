@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+class ItemSchedule {
+
+    private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::getStart)
+            .thenComparing(Interval::getId);
+
+    private final NavigableMap<LocalDateTime, LocalDateTime> occupied = new TreeMap<>();
+    private final NavigableSet<Interval> intervals = new TreeSet<>(ORDER);
+    private final Map<Long, Interval> byId = new HashMap<>();
+
+    boolean isFree(LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, LocalDateTime> before = occupied.lowerEntry(end);
+        return before == null || !before.getValue().isAfter(start);
+    }
+
+    List<FreeIntervalDto> freeRanges(LocalDateTime from, LocalDateTime to) {
+        List<FreeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        Map.Entry<LocalDateTime, LocalDateTime> covering = occupied.lowerEntry(from);
+        if (covering != null && covering.getValue().isAfter(cursor)) {
+            cursor = covering.getValue();
+        }
+        for (Map.Entry<LocalDateTime, LocalDateTime> range : occupied.subMap(from, true, to, false).entrySet()) {
+            if (range.getKey().isAfter(cursor)) {
+                free.add(new FreeIntervalDto(cursor, range.getKey()));
+            }
+            if (range.getValue().isAfter(cursor)) {
+                cursor = range.getValue();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new FreeIntervalDto(cursor, to));
+        }
+        return free;
+    }
+
+    void add(Long id, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        Interval interval = new Interval(id, start, end);
+        intervals.add(interval);
+        byId.put(id, interval);
+        if (interval.isEmpty()) {
+            return;
+        }
+        LocalDateTime from = start;
+        LocalDateTime to = end;
+        Map.Entry<LocalDateTime, LocalDateTime> range = occupied.lowerEntry(end);
+        while (range != null && range.getValue().isAfter(start)) {
+            from = from.isBefore(range.getKey()) ? from : range.getKey();
+            to = to.isAfter(range.getValue()) ? to : range.getValue();
+            occupied.remove(range.getKey());
+            range = occupied.lowerEntry(end);
+        }
+        occupied.put(from, to);
+    }
+
+    void remove(Long id) {
+        Interval interval = byId.remove(id);
+        if (interval == null) {
+            return;
+        }
+        intervals.remove(interval);
+        if (interval.isEmpty()) {
+            return;
+        }
+        Map.Entry<LocalDateTime, LocalDateTime> range = occupied.floorEntry(interval.getStart());
+        occupied.remove(range.getKey());
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (Interval rest : intervals.subSet(new Interval(Long.MIN_VALUE, range.getKey(), null), true,
+                new Interval(Long.MIN_VALUE, range.getValue(), null), false)) {
+            if (rest.isEmpty()) {
+                continue;
+            }
+            if (to != null && rest.getStart().isBefore(to)) {
+                to = to.isAfter(rest.getEnd()) ? to : rest.getEnd();
+                continue;
+            }
+            if (to != null) {
+                occupied.put(from, to);
+            }
+            from = rest.getStart();
+            to = rest.getEnd();
+        }
+        if (to != null) {
+            occupied.put(from, to);
+        }
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    private static final class Interval {
+
+        private final Long id;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(Long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+        Long getId() {
+            return id;
+        }
+
+        LocalDateTime getStart() {
+            return start;
+        }
+
+        LocalDateTime getEnd() {
+            return end;
+        }
+
+        boolean isEmpty() {
+            return !end.isAfter(start);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.cache;
+
+public class CachesResetEvent {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EntityCreatedEvent {
+
+    private final Class<?> type;
+    private final Long id;
+}
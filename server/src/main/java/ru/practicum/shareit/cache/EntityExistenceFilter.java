@@ -0,0 +1,295 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class EntityExistenceFilter implements MeterBinder {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long expectedIds;
+    private final double falsePositiveProbability;
+    private final Cache<Key, Boolean> missing;
+    private final Map<Class<?>, Ids> ids = new LinkedHashMap<>();
+
+    public EntityExistenceFilter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${shareit.ids.filter.enabled:true}") boolean enabled,
+                                 @Value("${shareit.ids.filter.expected-ids:1000000}") long expectedIds,
+                                 @Value("${shareit.ids.filter.false-positive-probability:0.01}")
+                                 double falsePositiveProbability,
+                                 @Value("${shareit.ids.negative-cache.maximum-size:100000}") long maximumSize,
+                                 @Value("${shareit.ids.negative-cache.expire-after-write:30s}")
+                                 Duration expireAfterWrite) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.expectedIds = expectedIds;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.missing = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        ids.put(Item.class, new Ids("items"));
+        ids.put(Booking.class, new Ids("bookings"));
+        ids.put(ItemRequest.class, new Ids("requests"));
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        CommitListener listener = new CommitListener(this);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        rebuild();
+    }
+
+    public void rebuild() {
+        for (Ids entityIds : ids.values()) {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + entityIds.table, Long.class);
+            BloomFilter filter = new BloomFilter(Math.max(expectedIds, 2 * (count == null ? 0 : count)),
+                    falsePositiveProbability);
+            AtomicLong watermark = new AtomicLong();
+            entityIds.startRebuild(filter);
+            jdbcTemplate.query("SELECT id FROM " + entityIds.table, (RowCallbackHandler) row -> {
+                long id = row.getLong(1);
+                filter.put(id);
+                watermark.accumulateAndGet(id, Math::max);
+            });
+            entityIds.finishRebuild(filter, watermark.get());
+            log.info("Фильтр идентификаторов '{}' перестроен, записей: {}", entityIds.table, count);
+        }
+    }
+
+    public boolean mightExist(Class<?> type, Long id) {
+        Ids entityIds = ids.get(type);
+        if (!enabled || entityIds == null) {
+            return true;
+        }
+        if (id > entityIds.watermark) {
+            entityIds.aboveWatermark.incrementAndGet();
+            return true;
+        }
+        if (missing.getIfPresent(new Key(type, id)) != null) {
+            entityIds.negativeHits.incrementAndGet();
+            return false;
+        }
+        if (!entityIds.filter.mightContain(id)) {
+            if (exists(entityIds, id)) {
+                entityIds.lateCommits.incrementAndGet();
+                entityIds.add(id);
+                return true;
+            }
+            entityIds.rejected.incrementAndGet();
+            missing.put(new Key(type, id), Boolean.TRUE);
+            return false;
+        }
+        return true;
+    }
+
+    public <T> Optional<T> find(Class<?> type, Long id, Function<Long, Optional<T>> finder) {
+        if (!mightExist(type, id)) {
+            return Optional.empty();
+        }
+        Optional<T> found = finder.apply(id);
+        if (found.isEmpty() && enabled && ids.containsKey(type) && id <= ids.get(type).watermark) {
+            ids.get(type).falsePositives.incrementAndGet();
+            missing.put(new Key(type, id), Boolean.TRUE);
+        }
+        return found;
+    }
+
+    @EventListener
+    public void onEntityCreated(EntityCreatedEvent event) {
+        Ids entityIds = ids.get(event.getType());
+        if (enabled && entityIds != null) {
+            entityIds.add(event.getId());
+            missing.invalidate(new Key(event.getType(), event.getId()));
+        }
+    }
+
+    @EventListener
+    public void onCachesReset(CachesResetEvent event) {
+        missing.invalidateAll();
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        ids.forEach((type, entityIds) -> {
+            Gauge.builder("shareit.ids.filter.expected.fpp", entityIds,
+                            value -> value.filter == null ? 0 : value.filter.expectedFalsePositiveProbability())
+                    .description("Ожидаемая вероятность ложноположительного ответа фильтра идентификаторов")
+                    .tag("entity", entityIds.table)
+                    .register(registry);
+            Gauge.builder("shareit.ids.filter.observed.fpp", entityIds, Ids::observedFalsePositiveProbability)
+                    .description("Доля несуществующих идентификаторов, дошедших до базы данных")
+                    .tag("entity", entityIds.table)
+                    .register(registry);
+            Gauge.builder("shareit.ids.filter.bytes", entityIds,
+                            value -> value.filter == null ? 0 : value.filter.estimatedBytes())
+                    .description("Память фильтра идентификаторов")
+                    .tag("entity", entityIds.table)
+                    .baseUnit("bytes")
+                    .register(registry);
+            lookups(registry, entityIds, "rejected", entityIds.rejected);
+            lookups(registry, entityIds, "negative-cache", entityIds.negativeHits);
+            lookups(registry, entityIds, "false-positive", entityIds.falsePositives);
+            lookups(registry, entityIds, "above-watermark", entityIds.aboveWatermark);
+            lookups(registry, entityIds, "late-commit", entityIds.lateCommits);
+        });
+    }
+
+    private boolean exists(Ids entityIds, Long id) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + entityIds.table + " WHERE id = ?",
+                Long.class, id);
+        return count != null && count > 0;
+    }
+
+    private void deleted(Class<?> type, Long id) {
+        if (ids.containsKey(type)) {
+            missing.put(new Key(type, id), Boolean.TRUE);
+        }
+    }
+
+    private void created(Class<?> type, Long id) {
+        if (ids.containsKey(type)) {
+            eventPublisher.publishEvent(new EntityCreatedEvent(type, id));
+        }
+    }
+
+    private static void lookups(MeterRegistry registry, Ids entityIds, String result, AtomicLong counter) {
+        FunctionCounter.builder("shareit.ids.lookups", counter, AtomicLong::get)
+                .description("Обращения к идентификаторам, отсутствующим в фильтре")
+                .tag("entity", entityIds.table)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final Class<?> type;
+        private final Long id;
+    }
+
+    private static class Ids {
+
+        private final String table;
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong negativeHits = new AtomicLong();
+        private final AtomicLong falsePositives = new AtomicLong();
+        private final AtomicLong aboveWatermark = new AtomicLong();
+        private final AtomicLong lateCommits = new AtomicLong();
+        private volatile BloomFilter filter;
+        private volatile long watermark;
+        private BloomFilter rebuilding;
+
+        Ids(String table) {
+            this.table = table;
+        }
+
+        synchronized void add(long id) {
+            filter.put(id);
+            watermark = Math.max(watermark, id);
+            if (rebuilding != null) {
+                rebuilding.put(id);
+            }
+        }
+
+        synchronized void startRebuild(BloomFilter next) {
+            if (filter == null) {
+                filter = next;
+            }
+            rebuilding = next;
+        }
+
+        synchronized void finishRebuild(BloomFilter next, long loaded) {
+            filter = next;
+            watermark = Math.max(watermark, loaded);
+            rebuilding = null;
+        }
+
+        double observedFalsePositiveProbability() {
+            long unknown = rejected.get() + falsePositives.get();
+            return unknown == 0 ? 0 : (double) falsePositives.get() / unknown;
+        }
+    }
+
+    private static class CommitListener implements PostCommitInsertEventListener, PostCommitDeleteEventListener {
+
+        private final transient EntityExistenceFilter existenceFilter;
+
+        CommitListener(EntityExistenceFilter existenceFilter) {
+            this.existenceFilter = existenceFilter;
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            existenceFilter.created(event.getPersister().getMappedClass(), (Long) event.getId());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            existenceFilter.deleted(event.getPersister().getMappedClass(), (Long) event.getId());
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHanding(EntityPersister persister) {
+            return true;
+        }
+    }
+}
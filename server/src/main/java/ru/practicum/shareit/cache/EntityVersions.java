@@ -0,0 +1,30 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.persistence.EntityManagerFactory;
+
+@Component
+@AllArgsConstructor
+public class EntityVersions {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void incrementItem(Long itemId) {
+        increment(Item.class, "items", itemId);
+    }
+
+    public void incrementRequest(Long requestId) {
+        increment(ItemRequest.class, "requests", requestId);
+    }
+
+    private void increment(Class<?> type, String table, Long id) {
+        jdbcTemplate.update("update " + table + " set view_version = view_version + 1 where id = ?", id);
+        entityManagerFactory.getCache().evict(type, id);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@EqualsAndHashCode
+@AllArgsConstructor
+public class InvalidationMessage {
+
+    private static final char SEARCH = 's';
+    private static final char NODE_SEPARATOR = ';';
+    private static final char TOKEN_SEPARATOR = ',';
+
+    private final String nodeId;
+    private final Map<Kind, Set<Long>> ids;
+    private final boolean search;
+
+    public Set<Long> getIds(Kind kind) {
+        return ids.getOrDefault(kind, Set.of());
+    }
+
+    public boolean isEmpty() {
+        return ids.values().stream().allMatch(Set::isEmpty) && !search;
+    }
+
+    public List<String> encode(int maxLength) {
+        List<String> tokens = new ArrayList<>();
+        ids.forEach((kind, kindIds) -> kindIds.forEach(id -> tokens.add(kind.code + String.valueOf(id))));
+        if (search) {
+            tokens.add(String.valueOf(SEARCH));
+        }
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId).append(NODE_SEPARATOR);
+        int header = payload.length();
+        for (String token : tokens) {
+            if (payload.length() > header && payload.length() + 1 + token.length() > maxLength) {
+                payloads.add(payload.toString());
+                payload.setLength(header);
+            }
+            if (payload.length() > header) {
+                payload.append(TOKEN_SEPARATOR);
+            }
+            payload.append(token);
+        }
+        if (payload.length() > header) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    public static InvalidationMessage decode(String payload) {
+        int separator = payload.indexOf(NODE_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Некорректное сообщение инвалидации: " + payload);
+        }
+        Map<Kind, Set<Long>> ids = new EnumMap<>(Kind.class);
+        boolean search = false;
+        for (String token : payload.substring(separator + 1).split(String.valueOf(TOKEN_SEPARATOR))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (token.charAt(0) == SEARCH) {
+                search = true;
+                continue;
+            }
+            Kind kind = Kind.of(token.charAt(0));
+            if (kind == null) {
+                throw new IllegalArgumentException("Некорректное сообщение инвалидации: " + payload);
+            }
+            ids.computeIfAbsent(kind, ignored -> new HashSet<>()).add(Long.parseLong(token.substring(1)));
+        }
+        return new InvalidationMessage(payload.substring(0, separator), ids, search);
+    }
+
+    public enum Kind {
+        ITEM_CHANGED('i'),
+        USER_CHANGED('u'),
+        ITEM_CREATED('a'),
+        BOOKING_CREATED('b'),
+        REQUEST_CREATED('r');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        private static Kind of(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package ru.practicum.shareit.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.cache.InvalidationMessage.Kind;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchChangedEvent;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.cache.invalidation.notify.enabled", havingValue = "true")
+public class PostgresInvalidationChannel {
+
+    private static final int MAX_PAYLOAD_LENGTH = 7_900;
+    private static final int POLL_TIMEOUT_MILLIS = 1_000;
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final ThreadLocal<Boolean> REPLAYING = ThreadLocal.withInitial(() -> false);
+    private static final Map<Class<?>, Kind> CREATED = Map.of(Item.class, Kind.ITEM_CREATED,
+            Booking.class, Kind.BOOKING_CREATED, ItemRequest.class, Kind.REQUEST_CREATED);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+    private final String channel;
+    private final Duration batchInterval;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<Kind, Set<Long>> pending = new EnumMap<>(Kind.class);
+    private boolean pendingSearch;
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    public PostgresInvalidationChannel(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties,
+                                       ApplicationEventPublisher eventPublisher,
+                                       EntityManagerFactory entityManagerFactory,
+                                       @Value("${shareit.cache.invalidation.notify.channel:shareit_invalidation}")
+                                       String channel,
+                                       @Value("${shareit.cache.invalidation.notify.batch-interval:50ms}")
+                                       Duration batchInterval) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Некорректное имя канала инвалидации: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+        this.channel = channel;
+        this.batchInterval = batchInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> daemon(runnable,
+                "cache-invalidation-flusher"));
+        flusher.scheduleWithFixedDelay(this::flush, batchInterval.toMillis(), batchInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        daemon(this::listen, "cache-invalidation-listener").start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        flush();
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        enqueue(Kind.ITEM_CHANGED, event.getItemId());
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        enqueue(Kind.USER_CHANGED, event.getUserId());
+    }
+
+    @EventListener
+    public void onEntityCreated(EntityCreatedEvent event) {
+        Kind kind = CREATED.get(event.getType());
+        if (kind != null) {
+            enqueue(kind, event.getId());
+        }
+    }
+
+    @EventListener
+    public void onItemSearchChanged(ItemSearchChangedEvent event) {
+        if (!REPLAYING.get()) {
+            synchronized (this) {
+                pendingSearch = true;
+            }
+        }
+    }
+
+    public void flush() {
+        InvalidationMessage message;
+        synchronized (this) {
+            message = new InvalidationMessage(nodeId, new EnumMap<>(pending), pendingSearch);
+            pending.clear();
+            pendingSearch = false;
+        }
+        if (message.isEmpty()) {
+            return;
+        }
+        try {
+            for (String payload : message.encode(MAX_PAYLOAD_LENGTH)) {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) row -> {
+                }, channel, payload);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось разослать инвалидацию кэшей: {}", e.getMessage());
+            synchronized (this) {
+                message.getIds().forEach((kind, ids) -> pending.computeIfAbsent(kind, ignored -> new HashSet<>())
+                        .addAll(ids));
+                pendingSearch |= message.isSearch();
+            }
+        }
+    }
+
+    public void receive(String payload) {
+        InvalidationMessage message = InvalidationMessage.decode(payload);
+        if (message.getNodeId().equals(nodeId)) {
+            return;
+        }
+        REPLAYING.set(true);
+        try {
+            for (Long itemId : message.getIds(Kind.ITEM_CHANGED)) {
+                entityManagerFactory.getCache().evict(Item.class, itemId);
+                eventPublisher.publishEvent(new ItemChangedEvent(itemId, true));
+            }
+            for (Long userId : message.getIds(Kind.USER_CHANGED)) {
+                entityManagerFactory.getCache().evict(User.class, userId);
+                eventPublisher.publishEvent(new UserChangedEvent(userId, true));
+            }
+            CREATED.forEach((type, kind) -> message.getIds(kind)
+                    .forEach(id -> eventPublisher.publishEvent(new EntityCreatedEvent(type, id))));
+            if (message.isSearch()) {
+                eventPublisher.publishEvent(new ItemSearchChangedEvent());
+            }
+        } finally {
+            REPLAYING.remove();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                eventPublisher.publishEvent(new CachesResetEvent());
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(POLL_TIMEOUT_MILLIS);
+                    for (PGNotification notification : received == null ? new PGNotification[0] : received) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Канал инвалидации кэшей недоступен, переподключение: {}", e.getMessage());
+                sleep();
+            }
+        }
+    }
+
+    private synchronized void enqueue(Kind kind, Long id) {
+        if (!REPLAYING.get()) {
+            pending.computeIfAbsent(kind, ignored -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.exceptions;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,6 +24,11 @@ public class ErrorHandler {
         response.sendError(HttpStatus.CONFLICT.value());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public void handlerConflict(HttpServletResponse response) throws IOException {
+        response.sendError(HttpStatus.CONFLICT.value());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorMessage> handlerBadRequest(IllegalArgumentException exception) {
         return ResponseEntity
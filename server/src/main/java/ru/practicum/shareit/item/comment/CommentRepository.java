@@ -1,12 +1,23 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    String GRAPH = "Comment.full";
+
+    @EntityGraph(GRAPH)
     List<Comment> findAllByItem(Item item);
 
+    @EntityGraph(GRAPH)
+    @Query("select c from Comment c where c.item.id in :itemIds")
+    List<Comment> findAllByItem_IdIn(@Param("itemIds") Collection<Long> itemIds);
+
 }
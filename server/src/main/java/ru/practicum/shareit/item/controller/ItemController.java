@@ -2,7 +2,10 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
@@ -12,6 +15,8 @@ import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,17 +30,37 @@ public class ItemController {
     @GetMapping
     public List<ItemBookingDto> getAll(@RequestHeader("X-Sharer-User-id") long userId,
                                        @RequestParam(defaultValue = "0") int from,
-                                       @RequestParam(defaultValue = "10") int size) {
+                                       @RequestParam(defaultValue = "10") int size,
+                                       @RequestParam(required = false) String cursor,
+                                       HttpServletResponse response) {
         log.info("Получен запрос GET /items");
+        if (cursor != null) {
+            return itemService.readPageByUserId(userId, cursor, size).writeTo(response);
+        }
         return itemService.readAllByUserId(userId, from, size);
     }
 
     @GetMapping("/{id}")
-    public ItemBookingDto getItem(@RequestHeader("X-Sharer-User-id") long userId, @PathVariable Long id) {
+    public ItemBookingDto getItem(@RequestHeader("X-Sharer-User-id") long userId, @PathVariable Long id,
+                                  WebRequest request) {
         log.info("Получен запрос GET /items/{}", id);
+        String tag = itemService.getEntityTag(id, userId);
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
         return itemService.getItemByUserId(id, userId);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<FreeIntervalDto> getAvailability(@RequestHeader("X-Sharer-User-id") long userId, @PathVariable Long id,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                 LocalDateTime to) {
+        log.info("Получен запрос GET /items/{}/availability", id);
+        return itemService.getAvailability(id, userId, from, to);
+    }
+
     @PostMapping
     public ItemDto create(@RequestHeader("X-Sharer-User-id") long userId, @RequestBody ItemDto itemDto) {
         log.info("Получен запрос POST /items");
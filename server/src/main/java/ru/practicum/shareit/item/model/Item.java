@@ -1,9 +1,15 @@
 package ru.practicum.shareit.item.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -15,6 +21,15 @@ import javax.persistence.*;
 @Builder
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@NamedEntityGraph(name = "Item.full",
+        attributeNodes = {
+                @NamedAttributeNode("owner"),
+                @NamedAttributeNode(value = "itemRequest", subgraph = "itemRequest")
+        },
+        subgraphs = @NamedSubgraph(name = "itemRequest", attributeNodes = @NamedAttributeNode("requestor")))
 public class Item {
 
     @Id
@@ -27,10 +42,18 @@ public class Item {
     private String description;
     @Column(name = "available")
     private Boolean available;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", referencedColumnName = "id")
     private User owner;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_request_id", referencedColumnName = "id")
     private ItemRequest itemRequest;
+    @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private long version;
+    @JsonIgnore
+    @Generated(GenerationTime.ALWAYS)
+    @Column(name = "view_version", insertable = false, updatable = false)
+    private long viewVersion;
 }
@@ -1,20 +1,78 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    Page<Item> findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(String name, String description,
-                                                                             Pageable pageable);
+    String GRAPH = "Item.full";
+
+    @Override
+    @EntityGraph(GRAPH)
+    Optional<Item> findById(Long id);
+
+    @EntityGraph(GRAPH)
+    @Query("select i from Item i " +
+            "where i.available = true " +
+            "and (upper(i.name) like upper(concat('%', :pattern, '%')) escape '\\' " +
+            "or upper(i.description) like upper(concat('%', :pattern, '%')) escape '\\') " +
+            "order by case when upper(i.name) like upper(concat('%', :pattern, '%')) escape '\\' then 0 else 1 end, " +
+            "i.id")
+    List<Item> searchAvailable(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.available " +
+            "AND (i.name ILIKE '%' || :pattern || '%' ESCAPE '\\' " +
+            "OR i.description ILIKE '%' || :pattern || '%' ESCAPE '\\') " +
+            "ORDER BY GREATEST(word_similarity(:text, i.name), word_similarity(:text, i.description)) DESC, i.id",
+            nativeQuery = true)
+    List<Long> searchAvailableRanked(@Param("text") String text, @Param("pattern") String pattern,
+                                     Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    List<Item> findAllByIdIn(Collection<Long> ids);
+
+    @EntityGraph(GRAPH)
+    @Query("select i from Item i where i.itemRequest.id in :requestIds order by i.id")
+    List<Item> findAllByItemRequest_IdIn(@Param("requestIds") Collection<Long> requestIds);
+
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "left join fetch i.itemRequest r " +
+            "left join fetch r.requestor " +
+            "where i.available = true and i.id > :id " +
+            "order by i.id")
+    List<Item> findAvailableAfter(@Param("id") Long id, Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    Slice<Item> findAllByOwner(User owner, Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    Slice<Item> findAllBy(Pageable pageable);
 
-    Page<Item> findAllByOwner(User owner, Pageable pageable);
+    @EntityGraph(GRAPH)
+    List<Item> findAllByOwnerAndIdGreaterThanOrderById(User owner, Long id, Pageable pageable);
 
-    Page<Item> findAll(Pageable pageable);
+    @EntityGraph(GRAPH)
+    List<Item> findAllByIdGreaterThanOrderById(Long id, Pageable pageable);
 
+    @Query("select i.owner.id as ownerId, " +
+            "i.version + i.viewVersion + o.version + coalesce(r.version, 0) + coalesce(q.version, 0) + " +
+            "coalesce((select sum(a.version) from Comment c join c.author a where c.item.id = i.id), 0) as version " +
+            "from Item i join i.owner o left join i.itemRequest r left join r.requestor q " +
+            "where i.id = :itemId")
+    Optional<ItemVersionView> findViewVersionById(@Param("itemId") Long itemId);
 }
@@ -0,0 +1,382 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine, MeterBinder {
+
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final long MAP_ENTRY_BYTES = 48;
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<String, Set<String>> grams = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, User> owners = new HashMap<>();
+    private final Map<Long, Integer> ownerDocuments = new HashMap<>();
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository, UserRepository userRepository) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            grams.clear();
+            documents.clear();
+            owners.clear();
+            ownerDocuments.clear();
+            long lastId = 0;
+            List<Item> items;
+            do {
+                items = itemRepository.findAvailableAfter(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Item item : items) {
+                    add(item);
+                    lastId = item.getId();
+                }
+            } while (items.size() == REBUILD_BATCH_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: {} предметов, {} термов, ~{} байт на предмет", size(), terms(),
+                bytesPerItem());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Document> nameMatches = new ArrayList<>();
+        List<Document> descriptionMatches = new ArrayList<>();
+        List<Item> items;
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                Document document = documents.get(id);
+                if (document.searchName.contains(query)) {
+                    nameMatches.add(document);
+                } else if (document.searchDescription.contains(query)) {
+                    descriptionMatches.add(document);
+                }
+            }
+            nameMatches.addAll(descriptionMatches);
+            items = nameMatches.stream()
+                    .skip(pageable.isPaged() ? pageable.getOffset() : 0)
+                    .limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE)
+                    .map(this::toItem)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return items;
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(documents.remove(item.getId()));
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(documents.remove(itemId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateOwner(User owner) {
+        lock.writeLock().lock();
+        try {
+            if (owners.containsKey(owner.getId())) {
+                owners.put(owner.getId(), toOwner(owner));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.isRemote()) {
+            itemRepository.findById(event.getItemId())
+                    .ifPresentOrElse(this::index, () -> remove(event.getItemId()));
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isRemote()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (!owners.containsKey(event.getUserId())) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        userRepository.findById(event.getUserId()).ifPresent(this::updateOwner);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.search.index.items", this, InMemoryItemSearchEngine::size)
+                .description("Количество доступных предметов в поисковом индексе")
+                .register(registry);
+        Gauge.builder("shareit.search.index.terms", this, InMemoryItemSearchEngine::terms)
+                .description("Количество термов в поисковом индексе")
+                .register(registry);
+        Gauge.builder("shareit.search.index.bytes.per.item", this, InMemoryItemSearchEngine::bytesPerItem)
+                .description("Оценка памяти поискового индекса на один предмет")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int terms() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int owners() {
+        lock.readLock().lock();
+        try {
+            return owners.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long bytesPerItem() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, PostingList> posting : postings.entrySet()) {
+                bytes += MAP_ENTRY_BYTES + stringBytes(posting.getKey()) + posting.getValue().estimatedBytes();
+            }
+            for (Map.Entry<String, Set<String>> gram : grams.entrySet()) {
+                bytes += MAP_ENTRY_BYTES + stringBytes(gram.getKey()) + MAP_ENTRY_BYTES * gram.getValue().size();
+            }
+            for (Document document : documents.values()) {
+                bytes += MAP_ENTRY_BYTES + document.estimatedBytes();
+            }
+            return documents.isEmpty() ? 0 : bytes / documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidates(String query) {
+        Set<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return documents.keySet().stream()
+                    .mapToLong(Long::longValue)
+                    .sorted()
+                    .toArray();
+        }
+        long[] candidates = null;
+        for (String token : tokens) {
+            List<long[]> matches = new ArrayList<>();
+            for (String term : termsContaining(token)) {
+                matches.add(postings.get(term).toArray());
+            }
+            long[] tokenCandidates = PostingList.union(matches);
+            candidates = candidates == null ? tokenCandidates : PostingList.intersect(candidates, tokenCandidates);
+            if (candidates.length == 0) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private Collection<String> termsContaining(String token) {
+        if (token.length() <= GRAM_LENGTH) {
+            return grams.getOrDefault(token, Set.of());
+        }
+        List<Set<String>> gramTerms = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            Set<String> terms = grams.get(token.substring(i, i + GRAM_LENGTH));
+            if (terms == null) {
+                return List.of();
+            }
+            gramTerms.add(terms);
+        }
+        gramTerms.sort(Comparator.comparingInt(Set::size));
+        List<String> terms = new ArrayList<>();
+        for (String term : gramTerms.get(0)) {
+            if (term.contains(token)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private void add(Item item) {
+        Document document = new Document(item);
+        documents.put(document.id, document);
+        owners.put(item.getOwner().getId(), toOwner(item.getOwner()));
+        ownerDocuments.merge(item.getOwner().getId(), 1, Integer::sum);
+        for (String term : document.terms()) {
+            postings.computeIfAbsent(term, key -> {
+                for (String gram : grams(key)) {
+                    grams.computeIfAbsent(gram, ignored -> new HashSet<>()).add(key);
+                }
+                return new PostingList();
+            }).add(document.id);
+        }
+    }
+
+    private void remove(Document document) {
+        if (document == null) {
+            return;
+        }
+        if (ownerDocuments.merge(document.ownerId, -1, Integer::sum) == 0) {
+            ownerDocuments.remove(document.ownerId);
+            owners.remove(document.ownerId);
+        }
+        for (String term : document.terms()) {
+            PostingList posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(document.id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    removeGrams(term);
+                }
+            }
+        }
+    }
+
+    private void removeGrams(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = grams.get(gram);
+            terms.remove(term);
+            if (terms.isEmpty()) {
+                grams.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> result = new HashSet<>();
+        for (int length = 1; length <= Math.min(GRAM_LENGTH, term.length()); length++) {
+            for (int i = 0; i + length <= term.length(); i++) {
+                result.add(term.substring(i, i + length));
+            }
+        }
+        return result;
+    }
+
+    private Item toItem(Document document) {
+        return Item.builder()
+                .id(document.id)
+                .name(document.name)
+                .description(document.description)
+                .available(true)
+                .owner(owners.get(document.ownerId))
+                .itemRequest(document.requestId == null ? null : ItemRequest.builder()
+                        .id(document.requestId)
+                        .build())
+                .build();
+    }
+
+    private static User toOwner(User owner) {
+        return User.builder()
+                .id(owner.getId())
+                .name(owner.getName())
+                .email(owner.getEmail())
+                .build();
+    }
+
+    private static Set<String> tokenize(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    @AllArgsConstructor
+    private static class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final String searchName;
+        private final String searchDescription;
+        private final Long ownerId;
+        private final Long requestId;
+
+        Document(Item item) {
+            this(item.getId(), item.getName(), item.getDescription(), item.getName().toLowerCase(Locale.ROOT),
+                    item.getDescription().toLowerCase(Locale.ROOT), item.getOwner().getId(),
+                    item.getItemRequest() == null ? null : item.getItemRequest().getId());
+        }
+
+        Set<String> terms() {
+            Set<String> terms = tokenize(searchName);
+            terms.addAll(tokenize(searchDescription));
+            return terms;
+        }
+
+        long estimatedBytes() {
+            return 48 + stringBytes(name) + stringBytes(description) + stringBytes(searchName)
+                    + stringBytes(searchDescription);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache implements MeterBinder {
+
+    private static final String NAME = "items.search";
+
+    private final Cache<Key, List<ItemDto>> results;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.search.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public List<ItemDto> get(String text, Pageable pageable, Supplier<List<ItemDto>> search) {
+        Key key = new Key(generation.get(), text.toLowerCase(Locale.ROOT), pageable.getPageNumber(),
+                pageable.getPageSize());
+        return results.get(key, ignored -> List.copyOf(search.get()));
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    @EventListener
+    public void onItemSearchChanged(ItemSearchChangedEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onCachesReset(CachesResetEvent event) {
+        invalidate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, NAME);
+        Gauge.builder("shareit.search.cache.hit.ratio", results, cache -> cache.stats().hitRate())
+                .description("Доля поисковых запросов, обслуженных из кэша")
+                .register(registry);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final long generation;
+        private final String text;
+        private final int page;
+        private final int size;
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.search;
+
+public class ItemSearchChangedEvent {
+}
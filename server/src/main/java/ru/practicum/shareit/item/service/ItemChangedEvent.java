@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemChangedEvent {
+
+    private final Long itemId;
+    private final boolean remote;
+
+    public ItemChangedEvent(Long itemId) {
+        this(itemId, false);
+    }
+}
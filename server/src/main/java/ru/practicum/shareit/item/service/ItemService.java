@@ -1,11 +1,14 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.CursorPage;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -16,12 +19,20 @@ public interface ItemService {
 
     List<ItemBookingDto> readAllByUserId(Long id, Integer from, Integer size);
 
+    CursorPage<Item> readPage(String cursor, Integer size);
+
+    CursorPage<ItemBookingDto> readPageByUserId(Long id, String cursor, Integer size);
+
     Item update(Long id, Item item, Long userId);
 
     Item getItemById(Long id);
 
     ItemBookingDto getItemByUserId(Long id, Long userId);
 
+    String getEntityTag(Long id, Long userId);
+
+    List<FreeIntervalDto> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to);
+
     void delete(Long id, Long userId);
 
     List<ItemDto> findItemsByText(String text, Integer from, Integer size);
@@ -2,14 +2,19 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Status;
-import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.AvailabilityIndex;
+import ru.practicum.shareit.cache.EntityExistenceFilter;
+import ru.practicum.shareit.cache.EntityVersions;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
@@ -17,14 +22,21 @@ import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserResolver;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,19 +44,37 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class ItemServiceImpl implements ItemService {
 
+    private static final List<String> ANY_STATUS = Arrays.stream(Status.values())
+            .map(Status::name)
+            .collect(Collectors.toList());
+    private static final int UPDATE_ATTEMPTS = 3;
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserResolver userResolver;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemViewCache itemViewCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityExistenceFilter existenceFilter;
+    private final AvailabilityIndex availabilityIndex;
+    private final EntityVersions entityVersions;
 
     @Override
     public ItemDto create(Item item, Long userId) {
-        item.setOwner(userRepository.findById(userId).get());
+        item.setOwner(userResolver.findById(userId).get());
         if (item.getItemRequest() != null) {
             item.setItemRequest(itemRequestRepository.findById(item.getItemRequest().getId()).get());
         }
         Item createItem = itemRepository.save(item);
+        itemSearchEngine.index(createItem);
+        eventPublisher.publishEvent(new ItemChangedEvent(createItem.getId()));
+        eventPublisher.publishEvent(new ItemSearchChangedEvent());
+        if (createItem.getItemRequest() != null) {
+            entityVersions.incrementRequest(createItem.getItemRequest().getId());
+        }
         log.info("Предмет с id = '{}' добавлен в список", createItem.getId());
         ItemDto createItemDto = ItemMapper.toItemDto(createItem);
         if (item.getItemRequest() != null) {
@@ -56,47 +86,53 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public List<Item> readAll(Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        return itemRepository.findAll(pageable).toList();
+        return itemRepository.findAllBy(pageable).toList();
     }
 
     @Override
     public List<ItemBookingDto> readAllByUserId(Long id, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
 
-        Map<Item, List<Comment>> comments =
-                commentRepository.findAll().stream().collect(Collectors.groupingBy(Comment::getItem));
-        Map<Item, List<Booking>> bookings = bookingRepository.findAllByStatusOrderByStartDesc(Status.APPROVED).stream()
-                .collect(Collectors.groupingBy(Booking::getItem));
+        List<Item> items = itemRepository.findAllByOwner(userResolver.findById(id).get(), pageable).toList();
+        return toItemBookingDtos(items).stream()
+                .sorted(Comparator.comparing(ItemBookingDto::getId))
+                .collect(Collectors.toList());
+    }
 
-        List<Item> items = itemRepository.findAllByOwner(userRepository.findById(id).get(), pageable).toList();
+    @Override
+    public CursorPage<Item> readPage(String cursor, Integer size) {
+        List<Item> items = itemRepository.findAllByIdGreaterThanOrderById(Cursor.idAfter(Cursor.decode(cursor)),
+                CursorPage.limit(size));
+        return CursorPage.of(items, size, item -> Cursor.encode(item.getId()));
+    }
 
-        List<ItemBookingDto> itemsBookingDto = new ArrayList<>();
+    @Override
+    public CursorPage<ItemBookingDto> readPageByUserId(Long id, String cursor, Integer size) {
+        List<Item> items = itemRepository.findAllByOwnerAndIdGreaterThanOrderById(userResolver.findById(id).get(),
+                Cursor.idAfter(Cursor.decode(cursor)), CursorPage.limit(size));
+        CursorPage<Item> page = CursorPage.of(items, size, item -> Cursor.encode(item.getId()));
+        return new CursorPage<>(toItemBookingDtos(page.getContent()), page.getNextCursor());
+    }
 
-        for (Item item : items) {
-            ItemBookingDto itemBookingDto = ItemMapper.toItemWishBookingAndCommentDto(item, null,
-                    null, List.of());
-            if (bookings.containsKey(item)) {
-                itemBookingDto = addLastAndNextBooking(item, bookings.get(item), List.of());
-            }
-            if (comments.containsKey(item)) {
-                List<CommentDto> commentsDto = comments.get(item)
-                        .stream()
-                        .map(CommentMapper::toCommentDto)
-                        .collect(Collectors.toList());
-                itemBookingDto.setComments(commentsDto);
+    @Override
+    public Item update(Long id, Item item, Long userId) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return tryUpdate(id, item, userId);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == UPDATE_ATTEMPTS) {
+                    log.info("OptimisticLockingFailureException (Предмет с id = {} изменен параллельным запросом)", id);
+                    throw e;
+                }
+                log.debug("Предмет с id = {} изменен параллельным запросом, попытка {}", id, attempt);
             }
-            itemsBookingDto.add(itemBookingDto);
         }
-        return itemsBookingDto.stream()
-                .sorted(Comparator.comparing(ItemBookingDto::getId))
-                .collect(Collectors.toList());
     }
 
-    @Override
-    public Item update(Long id, Item item, Long userId) {
+    private Item tryUpdate(Long id, Item item, Long userId) {
         Optional<Item> itemOpt = itemRepository.findById(id);
         if (itemOpt.isPresent()) {
-            if (itemOpt.get().getOwner() != userRepository.findById(userId).get()) {
+            if (!itemOpt.get().getOwner().getId().equals(userResolver.findById(userId).get().getId())) {
                 throw new EntityNotFoundException("EntityNotFoundException (Предмет не может быть обновлен, т.к. он " +
                         "не принадлежит данному пользователю)");
             }
@@ -110,6 +146,12 @@ public class ItemServiceImpl implements ItemService {
                 itemOpt.get().setAvailable(item.getAvailable());
             }
             Item updateItem = itemRepository.save(itemOpt.get());
+            itemSearchEngine.index(updateItem);
+            eventPublisher.publishEvent(new ItemSearchChangedEvent());
+            if (updateItem.getItemRequest() != null) {
+                entityVersions.incrementRequest(updateItem.getItemRequest().getId());
+            }
+            eventPublisher.publishEvent(new ItemChangedEvent(updateItem.getId()));
             log.info("Предмет с id = '{}' обновлен", updateItem.getId());
             return updateItem;
         } else {
@@ -130,30 +172,79 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemBookingDto getItemByUserId(Long itemId, Long userId) {
-        Optional<Item> itemOpt = itemRepository.findById(itemId);
+        ItemBookingDto cached = itemViewCache.find(itemId, userId);
+        if (cached != null && userResolver.findById(userId).isPresent()) {
+            return cached;
+        }
+        long stamp = itemViewCache.stamp();
+        Optional<Item> itemOpt = existenceFilter.find(Item.class, itemId, itemRepository::findById);
         if (itemOpt.isEmpty()) {
             throw new EntityNotFoundException(String.format("Предмет с id = %d отсутствует в списке", itemId));
         } else {
             Item item = itemOpt.get();
+            Long ownerId = item.getOwner().getId();
             List<Comment> comments = commentRepository.findAllByItem(item);
-            if (item.getOwner().equals(userRepository.findById(userId).get())) {
-                List<Booking> bookings =
-                        bookingRepository.findAllByItem_IdOrderByStartDesc(itemId);
-                if (bookings.size() != 0) {
-                    return addLastAndNextBooking(item, bookings, comments);
-                } else {
-                    return addLastAndNextBooking(item, List.of(), comments);
-                }
+            if (ownerId.equals(userResolver.findById(userId).get().getId())) {
+                LocalDateTime now = LocalDateTime.now();
+                List<LastAndNextBookingView> bookings = bookingRepository.findLastAndNextBookings(List.of(itemId),
+                        ANY_STATUS, now);
+                ItemBookingDto view = addLastAndNextBooking(item, bookings.isEmpty() ? null : bookings.get(0),
+                        comments);
+                itemViewCache.putOwnerView(stamp, itemId, ownerId, view,
+                        bookingRepository.findNextBoundary(itemId, now));
+                return view;
             } else {
-                return addLastAndNextBooking(item, List.of(), comments);
+                ItemBookingDto view = addLastAndNextBooking(item, null, comments);
+                itemViewCache.putPublicView(stamp, itemId, ownerId, view);
+                return view;
             }
         }
     }
 
+    @Override
+    public String getEntityTag(Long id, Long userId) {
+        if (!existenceFilter.mightExist(Item.class, id)) {
+            return null;
+        }
+        Optional<ItemVersionView> version = itemRepository.findViewVersionById(id);
+        if (version.isEmpty() || userResolver.findById(userId).isEmpty()) {
+            return null;
+        }
+        if (!version.get().getOwnerId().equals(userId)) {
+            return id + "-" + version.get().getVersion();
+        }
+        LocalDateTime boundary = bookingRepository.findNextBoundary(id, LocalDateTime.now());
+        return id + "-" + version.get().getVersion() + "-" + (boundary == null ? "none" : boundary);
+    }
+
+    @Override
+    public List<FreeIntervalDto> getAvailability(Long id, Long userId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            log.info("IllegalArgumentException (Начало периода не раньше его окончания)");
+            throw new IllegalArgumentException("Начало периода должно быть раньше его окончания");
+        }
+        if (userResolver.findById(userId).isEmpty()) {
+            throw new EntityNotFoundException(String.format("Пользователь с id=%d отсутствует в списке", userId));
+        }
+        Optional<List<FreeIntervalDto>> free = existenceFilter.mightExist(Item.class, id)
+                ? availabilityIndex.findFree(id, from, to)
+                : Optional.empty();
+        return free.orElseThrow(() -> new EntityNotFoundException(String.format("Предмет с id = %d отсутствует " +
+                "в списке", id)));
+    }
+
     @Override
     public void delete(Long id, Long userId) {
-        if (itemRepository.findById(id).isPresent()) {
+        Optional<Item> item = itemRepository.findById(id);
+        if (item.isPresent()) {
             itemRepository.deleteById(id);
+            availabilityIndex.evict(id);
+            itemSearchEngine.remove(id);
+            eventPublisher.publishEvent(new ItemSearchChangedEvent());
+            if (item.get().getItemRequest() != null) {
+                entityVersions.incrementRequest(item.get().getItemRequest().getId());
+            }
+            eventPublisher.publishEvent(new ItemChangedEvent(id));
         } else {
             throw new EntityNotFoundException(String.format("Предмет с id=%d отсутствует в списке", id));
         }
@@ -165,12 +256,10 @@ public class ItemServiceImpl implements ItemService {
         if (text.isEmpty() && text.isBlank()) {
             return new ArrayList<>();
         } else {
-            List<Item> items = itemRepository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(text, text,
-                    pageable).toList();
-            return items
+            return itemSearchCache.get(text, pageable, () -> itemSearchEngine.search(text, pageable)
                     .stream()
                     .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
+                    .collect(Collectors.toList()));
         }
     }
 
@@ -181,9 +270,12 @@ public class ItemServiceImpl implements ItemService {
             if (!bookingRepository.findAllByItemIdAndAndBooker_IdAndEndBefore(itemId, userId, LocalDateTime.now())
                     .isEmpty()) {
                 comment.setItem(item.get());
-                comment.setAuthor(userRepository.findById(userId).get());
+                comment.setAuthor(userResolver.findById(userId).get());
                 comment.setCreated(LocalDateTime.now());
-                return CommentMapper.toCommentDto(commentRepository.save(comment));
+                CommentDto createComment = CommentMapper.toCommentDto(commentRepository.save(comment));
+                entityVersions.incrementItem(itemId);
+                eventPublisher.publishEvent(new ItemChangedEvent(itemId));
+                return createComment;
             } else {
                 throw new IllegalArgumentException(String.format("Пользователь с id=%d не имел, либо не завершил бронь " +
                         "с предметом с id=%d", userId, itemId));
@@ -193,28 +285,35 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private ItemBookingDto addLastAndNextBooking(Item item, List<Booking> bookings, List<Comment> comments) {
-        ItemBookingDto itemBookingDto = ItemMapper.toItemWishBookingAndCommentDto(item, null, null,
-                null);
-        List<BookingItemDto> lastBookings = bookings.stream()
-                .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                .map(BookingMapper::toShortDto)
-                .collect(Collectors.toList());
-        if (lastBookings.size() != 0) {
-            itemBookingDto.setLastBooking(lastBookings.get(0));
+    private List<ItemBookingDto> toItemBookingDtos(List<Item> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
-        List<BookingItemDto> nextBookings = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .map(BookingMapper::toShortDto)
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
                 .collect(Collectors.toList());
-        if (nextBookings.size() != 0) {
-            itemBookingDto.setNextBooking(nextBookings.get(nextBookings.size() - 1));
+
+        Map<Long, List<Comment>> comments = commentRepository.findAllByItem_IdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, LastAndNextBookingView> bookings = bookingRepository.findLastAndNextBookings(itemIds,
+                        List.of(Status.APPROVED.name()), LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(LastAndNextBookingView::getItemId, Function.identity()));
+
+        List<ItemBookingDto> itemsBookingDto = new ArrayList<>();
+
+        for (Item item : items) {
+            itemsBookingDto.add(addLastAndNextBooking(item, bookings.get(item.getId()),
+                    comments.getOrDefault(item.getId(), List.of())));
         }
+        return itemsBookingDto;
+    }
+
+    private ItemBookingDto addLastAndNextBooking(Item item, LastAndNextBookingView bookings, List<Comment> comments) {
         List<CommentDto> commentsDto = comments
                 .stream()
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
-        itemBookingDto.setComments(commentsDto);
-        return itemBookingDto;
+        return ItemMapper.toItemWishBookingAndCommentDto(item, BookingMapper.toLastBookingDto(bookings),
+                BookingMapper.toNextBookingDto(bookings), commentsDto);
     }
 }
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ItemViewCache {
+
+    private final Cache<Key, View> views;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemViewCache(@Value("${shareit.items.view-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.items.view-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ViewExpiry(expireAfterWrite.toNanos()))
+                .build();
+    }
+
+    @Nullable
+    public ItemBookingDto find(Long itemId, Long userId) {
+        View ownerView = views.getIfPresent(new Key(itemId, true));
+        if (ownerView != null && ownerView.ownerId.equals(userId)) {
+            return ownerView.item;
+        }
+        View publicView = views.getIfPresent(new Key(itemId, false));
+        if (publicView != null && !publicView.ownerId.equals(userId)) {
+            return publicView.item;
+        }
+        return null;
+    }
+
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void putOwnerView(long stamp, Long itemId, Long ownerId, ItemBookingDto item,
+                             @Nullable LocalDateTime validUntil) {
+        put(stamp, new Key(itemId, true), new View(ownerId, item, validUntil));
+    }
+
+    public void putPublicView(long stamp, Long itemId, Long ownerId, ItemBookingDto item) {
+        put(stamp, new Key(itemId, false), new View(ownerId, item, null));
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidations.incrementAndGet();
+        views.invalidate(new Key(event.getItemId(), true));
+        views.invalidate(new Key(event.getItemId(), false));
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        invalidations.incrementAndGet();
+        views.invalidateAll();
+    }
+
+    @EventListener
+    public void onCachesReset(CachesResetEvent event) {
+        invalidations.incrementAndGet();
+        views.invalidateAll();
+    }
+
+    private void put(long stamp, Key key, View view) {
+        views.put(key, view);
+        if (invalidations.get() != stamp) {
+            views.invalidate(key);
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key {
+        private final Long itemId;
+        private final boolean owner;
+    }
+
+    @AllArgsConstructor
+    private static class View {
+        private final Long ownerId;
+        private final ItemBookingDto item;
+        private final LocalDateTime validUntil;
+    }
+
+    @AllArgsConstructor
+    private static class ViewExpiry implements Expiry<Key, View> {
+
+        private final long maximumNanos;
+
+        @Override
+        public long expireAfterCreate(Key key, View view, long currentTime) {
+            if (view.validUntil == null) {
+                return maximumNanos;
+            }
+            long nanos = Duration.between(LocalDateTime.now(), view.validUntil).toNanos();
+            return Math.max(0, Math.min(maximumNanos, nanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, View view, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, View view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Cursor {
+
+    public static final String HEADER = "X-Next-Cursor";
+
+    public static final LocalDateTime MIN_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+    public static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private static final String SEPARATOR = ",";
+
+    private final LocalDateTime time;
+    private final Long id;
+
+    public static Cursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return new Cursor(null, Long.parseLong(decoded));
+            }
+            return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+    }
+
+    public static String encode(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    public static String encode(LocalDateTime time, Long id) {
+        return encode(time + SEPARATOR + id);
+    }
+
+    public static Long idAfter(Cursor cursor) {
+        return cursor == null ? 0L : cursor.getId();
+    }
+
+    public static LocalDateTime timeBefore(Cursor cursor) {
+        return cursor == null || cursor.getTime() == null ? MAX_TIME : cursor.getTime();
+    }
+
+    public static Long idBefore(Cursor cursor) {
+        return cursor == null ? Long.MAX_VALUE : cursor.getId();
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,12 +3,14 @@ package ru.practicum.shareit.request.controller;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutAnswersDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -30,23 +32,37 @@ public class ItemRequestController {
     @GetMapping
     public List<ItemRequestWithAnswersDto> getAllByRequestorId(@RequestHeader("X-Sharer-User-id") long userId,
                                                                @RequestParam(defaultValue = "0") int from,
-                                                               @RequestParam(defaultValue = "10") int size) {
+                                                               @RequestParam(defaultValue = "10") int size,
+                                                               @RequestParam(required = false) String cursor,
+                                                               HttpServletResponse response) {
         log.info("Получен запрос GET /requests");
+        if (cursor != null) {
+            return itemRequestService.getPageByRequestorId(userId, cursor, size).writeTo(response);
+        }
         return itemRequestService.getAllByRequestorId(userId, from, size);
     }
 
     @GetMapping("/all")
     public List<ItemRequestWithAnswersDto> getAll(@RequestHeader("X-Sharer-User-id") long userId,
                                                      @RequestParam(defaultValue = "0") int from,
-                                                     @RequestParam(defaultValue = "10") int size) {
+                                                     @RequestParam(defaultValue = "10") int size,
+                                                     @RequestParam(required = false) String cursor,
+                                                     HttpServletResponse response) {
         log.info("Получен запрос GET /requests/all");
+        if (cursor != null) {
+            return itemRequestService.getPage(userId, cursor, size).writeTo(response);
+        }
         return itemRequestService.getAll(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestWithAnswersDto getById(@RequestHeader("X-Sharer-User-id") long userId,
-                                             @PathVariable Long requestId) {
+                                             @PathVariable Long requestId, WebRequest request) {
         log.info("Получен запрос GET /requests/{}", requestId);
+        String tag = itemRequestService.getEntityTag(userId, requestId);
+        if (tag != null && request.checkNotModified(tag)) {
+            return null;
+        }
         return itemRequestService.getById(userId, requestId);
     }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.request.dto;
+
+public interface ItemRequestVersionView {
+
+    Long getRequestVersion();
+
+    Long getRequestorVersion();
+
+    Long getItemId();
+
+    Long getOwnerVersion();
+}
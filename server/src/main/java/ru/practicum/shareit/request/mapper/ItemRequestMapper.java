@@ -1,10 +1,12 @@
 package ru.practicum.shareit.request.mapper;
 
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutAnswersDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
@@ -19,12 +21,16 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestWithAnswersDto toItemRequestWithAnswersDto(ItemRequest itemRequest) {
+        return toItemRequestWithAnswersDto(itemRequest, itemRequest.getItems());
+    }
+
+    public static ItemRequestWithAnswersDto toItemRequestWithAnswersDto(ItemRequest itemRequest, List<Item> items) {
         return ItemRequestWithAnswersDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .requestor(itemRequest.getRequestor())
                 .created(itemRequest.getCreated())
-                .items(itemRequest.getItems().stream()
+                .items(items.stream()
                         .map(ItemMapper::toItemDto)
                         .collect(Collectors.toList()))
                 .build();
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.request.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.annotations.GenerationTime;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -19,6 +24,10 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "requests")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@NamedEntityGraph(name = "ItemRequest.requestor", attributeNodes = @NamedAttributeNode("requestor"))
 public class ItemRequest {
 
     @Id
@@ -27,12 +36,20 @@ public class ItemRequest {
     private Long id;
     @Column(name = "description")
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requestor_id", referencedColumnName = "id")
     private User requestor;
     @Column(name = "created")
     private LocalDateTime created;
     @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private long version;
+    @JsonIgnore
+    @Generated(GenerationTime.ALWAYS)
+    @Column(name = "view_version", insertable = false, updatable = false)
+    private long viewVersion;
+    @JsonIgnore
     @OneToMany(mappedBy = "itemRequest")
     private List<Item> items = new ArrayList<>();
 
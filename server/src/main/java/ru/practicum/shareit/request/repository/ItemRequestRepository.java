@@ -1,16 +1,66 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    Page<ItemRequest> findAllByRequestor_IdOrderByCreatedDesc(Long requestorId, Pageable pageable);
+    String GRAPH = "ItemRequest.requestor";
+
+    @Override
+    @EntityGraph(GRAPH)
+    Optional<ItemRequest> findById(Long id);
+
+    @EntityGraph(GRAPH)
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id = :requestorId " +
+            "order by r.created desc")
+    Slice<ItemRequest> findAllByRequestor_IdOrderByCreatedDesc(@Param("requestorId") Long requestorId,
+                                                               Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> :userId " +
+            "order by r.created desc, r.id desc")
+    Slice<ItemRequest> findAllByRequestor_IdNotOrderByCreatedDesc(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph(GRAPH)
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id = :requestorId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findRequestorPage(@Param("requestorId") Long requestorId,
+                                        @Param("created") LocalDateTime created,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
 
-    Page<ItemRequest> findAll(Pageable pageable);
+    @EntityGraph(GRAPH)
+    @Query("select r from ItemRequest r " +
+            "where r.requestor.id <> :userId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findOthersPage(@Param("userId") Long userId,
+                                     @Param("created") LocalDateTime created,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
 
+    @Query("select r.version + r.viewVersion as requestVersion, q.version as requestorVersion, " +
+            "i.id as itemId, o.version as ownerVersion " +
+            "from ItemRequest r join r.requestor q " +
+            "left join Item i on i.itemRequest = r left join i.owner o " +
+            "where r.id = :requestId " +
+            "order by i.id")
+    List<ItemRequestVersionView> findViewVersionsById(@Param("requestId") Long requestId);
 }
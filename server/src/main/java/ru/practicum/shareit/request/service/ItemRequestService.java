@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -14,5 +15,11 @@ public interface ItemRequestService {
 
     ItemRequestWithAnswersDto getById(Long userId, Long id);
 
+    String getEntityTag(Long userId, Long id);
+
     List<ItemRequestWithAnswersDto> getAll(Long userId, Integer from, Integer size);
+
+    CursorPage<ItemRequestWithAnswersDto> getPageByRequestorId(Long id, String cursor, Integer size);
+
+    CursorPage<ItemRequestWithAnswersDto> getPage(Long userId, String cursor, Integer size);
 }
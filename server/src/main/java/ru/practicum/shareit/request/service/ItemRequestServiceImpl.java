@@ -5,16 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import ru.practicum.shareit.cache.EntityExistenceFilter;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserResolver;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,14 +32,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserRepository userRepository;
+    private final UserResolver userResolver;
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemRepository itemRepository;
+
+    private final EntityExistenceFilter existenceFilter;
+
     @Override
     public ItemRequest create(ItemRequest itemRequest, Long userId) {
         itemRequest.setCreated(LocalDateTime.now());
-        itemRequest.setRequestor(userRepository.findById(userId).get());
+        itemRequest.setRequestor(userResolver.findById(userId).get());
         ItemRequest itemRequestCreated = itemRequestRepository.save(itemRequest);
         log.info("Запрос с id = '{}' добавлен в список", itemRequestCreated.getId());
         return itemRequestCreated;
@@ -38,35 +51,69 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestWithAnswersDto> getAllByRequestorId(Long userId, Integer from, Integer size) {
-        if (userRepository.findById(userId).isEmpty()) {
+        if (userResolver.findById(userId).isEmpty()) {
             log.info("Пользователь отсутствует в списке");
             throw new EntityNotFoundException(String.format("Пользователь с id=%d отсутствует в списке", userId));
         }
         Pageable pageable = PageRequest.of(from / size, size);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_IdOrderByCreatedDesc(userId,
                 pageable).toList();
-        return itemRequests
-                .stream()
-                .map(ItemRequestMapper::toItemRequestWithAnswersDto)
-                .collect(Collectors.toList());
+        return withAnswers(itemRequests);
+    }
+
+    @Override
+    public String getEntityTag(Long userId, Long id) {
+        if (userResolver.findById(userId).isEmpty() || !existenceFilter.mightExist(ItemRequest.class, id)) {
+            return null;
+        }
+        List<ItemRequestVersionView> versions = itemRequestRepository.findViewVersionsById(id);
+        if (versions.isEmpty()) {
+            return null;
+        }
+        StringBuilder tuples = new StringBuilder()
+                .append(versions.get(0).getRequestVersion()).append(':')
+                .append(versions.get(0).getRequestorVersion());
+        for (ItemRequestVersionView version : versions) {
+            if (version.getItemId() != null) {
+                tuples.append(';').append(version.getItemId()).append(':').append(version.getOwnerVersion());
+            }
+        }
+        return id + "-" + DigestUtils.md5DigestAsHex(tuples.toString().getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
     public List<ItemRequestWithAnswersDto> getAll(Long userId, Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        List<ItemRequest> itemRequests = itemRequestRepository.findAll(pageable).toList();
-        return itemRequests
-                .stream()
-                .filter(itemRequest -> !itemRequest.getRequestor().getId().equals(userId))
-                .sorted(Comparator.comparing(ItemRequest::getCreated).reversed())
-                .map(ItemRequestMapper::toItemRequestWithAnswersDto)
-                .collect(Collectors.toList());
+        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(userId,
+                pageable).toList();
+        return withAnswers(itemRequests);
+    }
+
+    @Override
+    public CursorPage<ItemRequestWithAnswersDto> getPageByRequestorId(Long userId, String cursor, Integer size) {
+        if (userResolver.findById(userId).isEmpty()) {
+            log.info("Пользователь отсутствует в списке");
+            throw new EntityNotFoundException(String.format("Пользователь с id=%d отсутствует в списке", userId));
+        }
+        Cursor position = Cursor.decode(cursor);
+        List<ItemRequest> itemRequests = itemRequestRepository.findRequestorPage(userId, Cursor.timeBefore(position),
+                Cursor.idBefore(position), CursorPage.limit(size));
+        return toPageWithAnswers(itemRequests, size);
+    }
+
+    @Override
+    public CursorPage<ItemRequestWithAnswersDto> getPage(Long userId, String cursor, Integer size) {
+        Cursor position = Cursor.decode(cursor);
+        List<ItemRequest> itemRequests = itemRequestRepository.findOthersPage(userId, Cursor.timeBefore(position),
+                Cursor.idBefore(position), CursorPage.limit(size));
+        return toPageWithAnswers(itemRequests, size);
     }
 
     @Override
     public ItemRequestWithAnswersDto getById(Long userId, Long id) {
-        Optional<ItemRequest> itemRequest = itemRequestRepository.findById(id);
-        if (userRepository.findById(userId).isEmpty()) {
+        Optional<ItemRequest> itemRequest = existenceFilter.find(ItemRequest.class, id,
+                itemRequestRepository::findById);
+        if (userResolver.findById(userId).isEmpty()) {
             log.info("EntityNotFoundException (Несуществующий пользователь)");
             throw new EntityNotFoundException("Несуществующий пользователь");
         }
@@ -74,7 +121,27 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             log.info("EntityNotFoundException (Несуществующий запрос)");
             throw new EntityNotFoundException("Несуществующий запрос");
         }
-        return ItemRequestMapper
-                .toItemRequestWithAnswersDto(itemRequest.get());
+        return withAnswers(List.of(itemRequest.get())).get(0);
+    }
+
+    private CursorPage<ItemRequestWithAnswersDto> toPageWithAnswers(List<ItemRequest> itemRequests, Integer size) {
+        CursorPage<ItemRequest> page = CursorPage.of(itemRequests, size,
+                request -> Cursor.encode(request.getCreated(), request.getId()));
+        return new CursorPage<>(withAnswers(page.getContent()), page.getNextCursor());
+    }
+
+    private List<ItemRequestWithAnswersDto> withAnswers(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> answers = itemRepository.findAllByItemRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId()));
+        return itemRequests.stream()
+                .map(itemRequest -> ItemRequestMapper.toItemRequestWithAnswersDto(itemRequest,
+                        answers.getOrDefault(itemRequest.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 }
@@ -8,6 +8,7 @@ import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -20,8 +21,13 @@ public class UserController {
 
     @GetMapping
     public List<User> getAll(@RequestParam(defaultValue = "0") int from,
-                             @RequestParam(defaultValue = "10") int size) {
+                             @RequestParam(defaultValue = "10") int size,
+                             @RequestParam(required = false) String cursor,
+                             HttpServletResponse response) {
         log.info("Получен запрос GET /users");
+        if (cursor != null) {
+            return userService.getPage(cursor, size).writeTo(response);
+        }
         return userService.getAll(from, size);
     }
 
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -18,6 +21,9 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class User {
 
     @Id
@@ -29,6 +35,10 @@ public class User {
     @Column(name = "email", unique = true)
     private String email;
     @JsonIgnore
+    @Version
+    @Column(name = "version")
+    private long version;
+    @JsonIgnore
     @OneToMany(mappedBy = "owner")
     private List<Item> items = new ArrayList<>();
     @JsonIgnore
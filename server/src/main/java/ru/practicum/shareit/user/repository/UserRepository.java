@@ -1,13 +1,17 @@
 package ru.practicum.shareit.user.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Page<User> findAll(Pageable pageable);
+    Slice<User> findAllBy(Pageable pageable);
+
+    List<User> findAllByIdGreaterThanOrderById(Long id, Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final boolean remote;
+
+    public UserChangedEvent(Long userId) {
+        this(userId, false);
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class UserResolver {
+
+    private static final String ATTRIBUTE = UserResolver.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> users;
+
+    public UserResolver(UserRepository userRepository,
+                        @Value("${shareit.users.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${shareit.users.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    public Optional<User> findById(Long userId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return load(userId);
+        }
+        Object resolved = request.getAttribute(ATTRIBUTE + userId, RequestAttributes.SCOPE_REQUEST);
+        if (resolved == null) {
+            resolved = load(userId);
+            request.setAttribute(ATTRIBUTE + userId, resolved, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Optional<User>) resolved;
+    }
+
+    public void evict(Long userId) {
+        users.invalidate(userId);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(ATTRIBUTE + userId, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    @EventListener
+    public void onCachesReset(CachesResetEvent event) {
+        users.invalidateAll();
+    }
+
+    private Optional<User> load(Long userId) {
+        return Optional.ofNullable(users.get(userId, id -> userRepository.findById(id)
+                .map(UserResolver::detach)
+                .orElse(null)));
+    }
+
+    private static User detach(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -16,4 +17,6 @@ public interface UserService {
 
     List<User> getAll(Integer from, Integer size);
 
+    CursorPage<User> getPage(String cursor, Integer size);
+
 }
@@ -2,10 +2,15 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearchChangedEvent;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -17,6 +22,8 @@ import java.util.Optional;
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public User create(User user) {
@@ -36,6 +43,9 @@ public class UserServiceImpl implements UserService {
                 userOpt.get().setEmail(user.getEmail());
             }
             User updateUser = userRepository.save(userOpt.get());
+            eventPublisher.publishEvent(new UserChangedEvent(id));
+            itemSearchEngine.updateOwner(updateUser);
+            eventPublisher.publishEvent(new ItemSearchChangedEvent());
             log.info("Пользователь с id '{}' обновлен", updateUser.getId());
             return updateUser;
         } else {
@@ -58,6 +68,7 @@ public class UserServiceImpl implements UserService {
     public void delete(Long userId) {
         if (userRepository.findById(userId).isPresent()) {
             userRepository.deleteById(userId);
+            eventPublisher.publishEvent(new UserChangedEvent(userId));
         } else {
             throw new EntityNotFoundException(String.format("Пользователя с id=%d нет в списке", userId));
         }
@@ -66,7 +77,14 @@ public class UserServiceImpl implements UserService {
     @Override
     public List<User> getAll(Integer from, Integer size) {
         Pageable pageable = PageRequest.of(from / size, size);
-        return userRepository.findAll(pageable).toList();
+        return userRepository.findAllBy(pageable).toList();
+    }
+
+    @Override
+    public CursorPage<User> getPage(String cursor, Integer size) {
+        List<User> users = userRepository.findAllByIdGreaterThanOrderById(Cursor.idAfter(Cursor.decode(cursor)),
+                CursorPage.limit(size));
+        return CursorPage.of(users, size, user -> Cursor.encode(user.getId()));
     }
 
 }
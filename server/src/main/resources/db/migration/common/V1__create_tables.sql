@@ -1,10 +1,3 @@
-DROP TABLE IF EXISTS
-    users,
-    items,
-    bookings,
-    requests,
-    comments;
-
 CREATE TABLE IF NOT EXISTS users
 (
     id    INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -0,0 +1,3 @@
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS view_version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS view_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,47 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Пересекающиеся активные брони, созданные до появления ограничения, отклоняются:
+-- у каждой вещи остаются подтвержденные брони раньше ожидающих, а среди них — более ранние по началу
+DO
+$$
+    DECLARE
+        booking RECORD;
+        rejected BIGINT := 0;
+    BEGIN
+        FOR booking IN
+            SELECT b.id, b.item_id, b.start_date, b.end_date, b.status
+            FROM bookings b
+            WHERE b.status IN ('WAITING', 'APPROVED')
+              AND EXISTS(SELECT 1
+                         FROM bookings o
+                         WHERE o.item_id = b.item_id
+                           AND o.id <> b.id
+                           AND o.status IN ('WAITING', 'APPROVED')
+                           AND tsrange(o.start_date, o.end_date) && tsrange(b.start_date, b.end_date))
+            ORDER BY b.item_id, b.status = 'APPROVED' DESC, b.start_date, b.id
+            LOOP
+                UPDATE bookings
+                SET status  = 'REJECTED',
+                    version = version + 1
+                WHERE id = booking.id
+                  AND EXISTS(SELECT 1
+                             FROM bookings o
+                             WHERE o.item_id = booking.item_id
+                               AND o.id <> booking.id
+                               AND o.status IN ('WAITING', 'APPROVED')
+                               AND tsrange(o.start_date, o.end_date) && tsrange(booking.start_date, booking.end_date)
+                               AND (o.status = 'APPROVED' AND booking.status = 'WAITING'
+                                 OR o.status = booking.status
+                                        AND (o.start_date, o.id) < (booking.start_date, booking.id)));
+                IF FOUND THEN
+                    rejected := rejected + 1;
+                END IF;
+            END LOOP;
+        RAISE NOTICE 'Отклонено пересекающихся броней: %', rejected;
+    END
+$$;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap EXCLUDE USING gist
+        (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
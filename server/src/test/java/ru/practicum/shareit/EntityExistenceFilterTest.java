@@ -0,0 +1,180 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.cache.EntityCreatedEvent;
+import ru.practicum.shareit.cache.EntityExistenceFilter;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class EntityExistenceFilterTest {
+
+    @Autowired
+    EntityExistenceFilter existenceFilter;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemRequestService itemRequestService;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    User owner;
+    Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void unknownIdsAreRejectedWithoutQueries() {
+        existenceFilter.onEntityCreated(new EntityCreatedEvent(Item.class, 1000L));
+        existenceFilter.onEntityCreated(new EntityCreatedEvent(Booking.class, 1000L));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.getItemByUserId(999L, owner.getId()));
+        assertThrows(EntityNotFoundException.class, () -> bookingService.get(999L, owner.getId()));
+        assertNull(itemService.getEntityTag(999L, owner.getId()));
+        assertNull(bookingService.getEntityTag(999L, owner.getId()));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertNull(itemRequestService.getEntityTag(owner.getId(), 999L));
+        assertEquals(itemService.getItemByUserId(item.getId(), owner.getId()).getName(), "item");
+        assertEquals(meterRegistry.get("shareit.ids.lookups")
+                .tag("entity", "items")
+                .tag("result", "rejected")
+                .functionCounter()
+                .count(), 1);
+        assertEquals(meterRegistry.get("shareit.ids.lookups")
+                .tag("entity", "items")
+                .tag("result", "negative-cache")
+                .functionCounter()
+                .count(), 1);
+    }
+
+    @Test
+    void missingIdIsCachedUntilCreated() {
+        assertTrue(existenceFilter.find(Item.class, item.getId(), id -> Optional.empty()).isEmpty());
+        assertFalse(existenceFilter.mightExist(Item.class, item.getId()));
+        assertEquals(meterRegistry.get("shareit.ids.filter.observed.fpp")
+                .tag("entity", "items")
+                .gauge()
+                .value(), 1.0);
+
+        existenceFilter.onEntityCreated(new EntityCreatedEvent(Item.class, item.getId()));
+
+        assertTrue(existenceFilter.mightExist(Item.class, item.getId()));
+        assertTrue(meterRegistry.get("shareit.ids.filter.expected.fpp")
+                .tag("entity", "items")
+                .gauge()
+                .value() < 0.01);
+    }
+
+    @Test
+    void deletedIdIsRejected() {
+        itemRepository.deleteById(item.getId());
+
+        assertFalse(existenceFilter.mightExist(Item.class, item.getId()));
+        assertThrows(EntityNotFoundException.class, () -> itemService.getItemByUserId(item.getId(), owner.getId()));
+        assertEquals(meterRegistry.get("shareit.ids.lookups")
+                .tag("entity", "items")
+                .tag("result", "negative-cache")
+                .functionCounter()
+                .count(), 2);
+    }
+
+    @Test
+    void idsAboveWatermarkAreNotRejected() {
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "VALUES (500, 'description', ?, CURRENT_TIMESTAMP)", owner.getId());
+
+        assertTrue(existenceFilter.find(ItemRequest.class, 600L, id -> Optional.empty()).isEmpty());
+        assertTrue(existenceFilter.mightExist(ItemRequest.class, 600L));
+        assertTrue(existenceFilter.mightExist(ItemRequest.class, 500L));
+        assertEquals(itemRequestService.getById(owner.getId(), 500L).getId().longValue(), 500L);
+        assertTrue(meterRegistry.get("shareit.ids.lookups")
+                .tag("entity", "requests")
+                .tag("result", "above-watermark")
+                .functionCounter()
+                .count() >= 3);
+    }
+
+    @Test
+    void idsCommittedOutOfOrderBelowWatermarkAreFound() {
+        existenceFilter.onEntityCreated(new EntityCreatedEvent(ItemRequest.class, 500L));
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "VALUES (400, 'description', ?, CURRENT_TIMESTAMP)", owner.getId());
+
+        assertTrue(existenceFilter.mightExist(ItemRequest.class, 400L));
+        assertEquals(itemRequestService.getById(owner.getId(), 400L).getId().longValue(), 400L);
+        assertFalse(existenceFilter.mightExist(ItemRequest.class, 450L));
+        assertFalse(existenceFilter.mightExist(ItemRequest.class, 450L));
+        assertEquals(meterRegistry.get("shareit.ids.lookups")
+                .tag("entity", "requests")
+                .tag("result", "late-commit")
+                .functionCounter()
+                .count(), 1);
+        assertEquals(meterRegistry.get("shareit.ids.lookups")
+                .tag("entity", "requests")
+                .tag("result", "rejected")
+                .functionCounter()
+                .count(), 1);
+    }
+
+    @Test
+    void resetRebuildsFromDatabase() {
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "VALUES (500, 'description', ?, CURRENT_TIMESTAMP)", owner.getId());
+        assertTrue(existenceFilter.mightExist(ItemRequest.class, 400L));
+
+        existenceFilter.onCachesReset(new CachesResetEvent());
+
+        assertTrue(existenceFilter.mightExist(ItemRequest.class, 500L));
+        assertFalse(existenceFilter.mightExist(ItemRequest.class, 400L));
+        assertEquals(itemRequestService.getById(owner.getId(), 500L).getId().longValue(), 500L);
+        assertTrue(existenceFilter.mightExist(User.class, 999L));
+    }
+}
@@ -0,0 +1,225 @@
+package ru.practicum.shareit;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class EntityTagTest {
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository requestRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+
+    User owner;
+    User booker;
+    ItemRequest request;
+    Item item;
+    Booking booking;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@mail.ru")
+                .build());
+        request = requestRepository.save(ItemRequest.builder()
+                .description("description")
+                .requestor(booker)
+                .created(LocalDateTime.now())
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .itemRequest(request)
+                .build());
+        booking = bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(Status.APPROVED)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build());
+    }
+
+    @Test
+    void getItemAnswersNotModifiedUntilCommentIsAdded() throws Exception {
+        String path = "/items/" + item.getId();
+        String tag = tag(path, booker);
+        assertNotModified(path, booker, tag);
+        assertNotEquals(tag, tag(path, owner));
+
+        mvc.perform(post(path + "/comment")
+                        .header("X-Sharer-User-id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"comment\"}"))
+                .andExpect(status().isOk());
+
+        assertModified(path, booker, tag);
+    }
+
+    @Test
+    void getItemServesRenamedCommentAuthorUnderNewTag() throws Exception {
+        String path = "/items/" + item.getId();
+        mvc.perform(post(path + "/comment")
+                        .header("X-Sharer-User-id", booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"comment\"}"))
+                .andExpect(status().isOk());
+        String tag = tag(path, booker);
+
+        mvc.perform(patch("/users/" + booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk());
+
+        mvc.perform(get(path)
+                        .header("X-Sharer-User-id", booker.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(tag)))
+                .andExpect(jsonPath("$.comments[0].authorName").value("renamed"));
+    }
+
+    @Test
+    void getBookingAnswersNotModifiedUntilBookerIsRenamed() throws Exception {
+        String path = "/bookings/" + booking.getId();
+        String tag = tag(path, booker);
+        assertNotModified(path, owner, tag);
+
+        mvc.perform(patch("/users/" + booker.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk());
+
+        assertModified(path, booker, tag);
+    }
+
+    @Test
+    void getRequestAnswersNotModifiedUntilAnswerIsAdded() throws Exception {
+        String path = "/requests/" + request.getId();
+        String tag = tag(path, owner);
+        assertNotModified(path, booker, tag);
+
+        mvc.perform(post("/items")
+                        .header("X-Sharer-User-id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"answer\", \"description\": \"answer\", \"available\": true, " +
+                                "\"requestId\": " + request.getId() + "}"))
+                .andExpect(status().isOk());
+
+        assertModified(path, owner, tag);
+    }
+
+    @Test
+    void getRequestAnswersModifiedWhenAnswerIsDeleted() throws Exception {
+        mvc.perform(patch("/users/" + owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"renamed\"}"))
+                .andExpect(status().isOk());
+        String answer = mvc.perform(post("/items")
+                        .header("X-Sharer-User-id", owner.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"answer\", \"description\": \"answer\", \"available\": true, " +
+                                "\"requestId\": " + request.getId() + "}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        Long answerId = JsonPath.parse(answer).read("$.id", Long.class);
+        String path = "/requests/" + request.getId();
+        String tag = tag(path, booker);
+
+        mvc.perform(delete("/items/" + answerId)
+                        .header("X-Sharer-User-id", owner.getId()))
+                .andExpect(status().isOk());
+
+        assertModified(path, booker, tag);
+    }
+
+    @Test
+    void getBookingOfAnotherUserIsNotTagged() throws Exception {
+        User stranger = userRepository.save(User.builder()
+                .name("stranger")
+                .email("stranger@mail.ru")
+                .build());
+
+        mvc.perform(get("/bookings/" + booking.getId())
+                        .header("X-Sharer-User-id", stranger.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String tag(String path, User user) throws Exception {
+        String tag = mvc.perform(get(path)
+                        .header("X-Sharer-User-id", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertNotNull(tag);
+        return tag;
+    }
+
+    private void assertNotModified(String path, User user, String tag) throws Exception {
+        mvc.perform(get(path)
+                        .header("X-Sharer-User-id", user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, tag))
+                .andExpect(content().string(""));
+    }
+
+    private void assertModified(String path, User user, String tag) throws Exception {
+        mvc.perform(get(path)
+                        .header("X-Sharer-User-id", user.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk());
+        assertNotEquals(tag, tag(path, user));
+    }
+}
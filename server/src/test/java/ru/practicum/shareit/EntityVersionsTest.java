@@ -0,0 +1,37 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+
+import static org.mockito.Mockito.verify;
+
+class EntityVersionsTest {
+
+    JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+    EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+    Cache cache = Mockito.mock(Cache.class);
+    EntityVersions entityVersions = new EntityVersions(jdbcTemplate, entityManagerFactory);
+
+    @Test
+    void incrementEvictsOnlyIncrementedEntity() {
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(cache);
+
+        entityVersions.incrementItem(1L);
+        entityVersions.incrementRequest(2L);
+
+        verify(jdbcTemplate).update("update items set view_version = view_version + 1 where id = ?", 1L);
+        verify(jdbcTemplate).update("update requests set view_version = view_version + 1 where id = ?", 2L);
+        verify(cache).evict(Item.class, 1L);
+        verify(cache).evict(ItemRequest.class, 2L);
+        Mockito.verifyNoMoreInteractions(cache);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OptimisticConcurrencyStressTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    BookingService bookingService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+
+    User owner;
+    User booker;
+    Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@mail.ru")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void concurrentApprovalsMakeExactlyOneTransition() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            Long bookingId = bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .start(LocalDateTime.now().plusDays(round + 1))
+                    .end(LocalDateTime.now().plusDays(round + 1).plusHours(1))
+                    .build()).getId();
+
+            List<Object> results = race(thread -> bookingService.setStatus(bookingId, owner.getId(), thread % 2 == 0));
+
+            List<Booking> transitions = new ArrayList<>();
+            for (Object result : results) {
+                if (result instanceof Booking) {
+                    transitions.add((Booking) result);
+                } else {
+                    assertTrue(result instanceof IllegalArgumentException
+                            || result instanceof OptimisticLockingFailureException, String.valueOf(result));
+                }
+            }
+            assertEquals(transitions.size(), 1);
+            Booking stored = bookingRepository.findById(bookingId).get();
+            assertEquals(stored.getStatus(), transitions.get(0).getStatus());
+            assertEquals(stored.getVersion(), 1);
+        }
+    }
+
+    @Test
+    void concurrentItemUpdatesNeverLoseVersions() throws Exception {
+        long initialVersion = itemRepository.findById(item.getId()).get().getVersion();
+
+        List<Object> results = race(thread -> itemService.update(item.getId(), Item.builder()
+                .name("item" + thread)
+                .build(), owner.getId()));
+
+        long updated = results.stream().filter(Item.class::isInstance).count();
+        long conflicts = results.stream().filter(OptimisticLockingFailureException.class::isInstance).count();
+        assertEquals(updated + conflicts, THREADS);
+        assertTrue(updated > 0);
+        assertEquals(itemRepository.findById(item.getId()).get().getVersion(), initialVersion + updated);
+    }
+
+    private List<Object> race(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit((Callable<Object>) () -> {
+                    ready.countDown();
+                    go.await();
+                    try {
+                        return task.run(thread);
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            ready.await();
+            go.countDown();
+            List<Object> results = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Task {
+        Object run(int thread);
+    }
+}
@@ -0,0 +1,199 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.cache.EntityCreatedEvent;
+import ru.practicum.shareit.cache.InvalidationMessage;
+import ru.practicum.shareit.cache.InvalidationMessage.Kind;
+import ru.practicum.shareit.cache.PostgresInvalidationChannel;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchChangedEvent;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PostgresInvalidationChannelTest {
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+    private static final String CHANNEL = "shareit_invalidation";
+
+    JdbcTemplate jdbcTemplate;
+    ApplicationEventPublisher eventPublisher;
+    Cache secondLevelCache;
+    PostgresInvalidationChannel channel;
+
+    @BeforeEach
+    void beforeEach() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        secondLevelCache = Mockito.mock(Cache.class);
+        EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        Mockito
+                .when(entityManagerFactory.getCache())
+                .thenReturn(secondLevelCache);
+        channel = new PostgresInvalidationChannel(jdbcTemplate, new DataSourceProperties(), eventPublisher,
+                entityManagerFactory, CHANNEL, Duration.ofMillis(50));
+    }
+
+    @Test
+    void flushCoalescesBurstIntoOneNotification() {
+        for (int i = 0; i < 100; i++) {
+            channel.onItemChanged(new ItemChangedEvent(1L + i % 2));
+        }
+        channel.onUserChanged(new UserChangedEvent(5L));
+        channel.onItemSearchChanged(new ItemSearchChangedEvent());
+
+        channel.flush();
+        channel.flush();
+
+        InvalidationMessage message = InvalidationMessage.decode(sentPayloads(1).get(0));
+        assertEquals(message.getIds(Kind.ITEM_CHANGED), Set.of(1L, 2L));
+        assertEquals(message.getIds(Kind.USER_CHANGED), Set.of(5L));
+        assertTrue(message.isSearch());
+    }
+
+    @Test
+    void flushRetriesAfterFailure() {
+        Mockito
+                .doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doNothing()
+                .when(jdbcTemplate).query(eq(NOTIFY), any(RowCallbackHandler.class), eq(CHANNEL), anyString());
+        channel.onItemChanged(new ItemChangedEvent(1L));
+
+        channel.flush();
+        channel.flush();
+
+        assertEquals(InvalidationMessage.decode(sentPayloads(2).get(1)).getIds(Kind.ITEM_CHANGED), Set.of(1L));
+    }
+
+    @Test
+    void startFlushesInBackgroundWhileListenerReconnects() {
+        channel.start();
+        try {
+            channel.onItemChanged(new ItemChangedEvent(1L));
+
+            verify(jdbcTemplate, timeout(1_000)).query(eq(NOTIFY), any(RowCallbackHandler.class), eq(CHANNEL),
+                    anyString());
+        } finally {
+            channel.stop();
+        }
+    }
+
+    @Test
+    void receiveEvictsRemoteEntitiesWithoutEcho() {
+        Mockito
+                .doAnswer(invocation -> {
+                    Object event = invocation.getArgument(0);
+                    if (event instanceof ItemChangedEvent) {
+                        channel.onItemChanged((ItemChangedEvent) event);
+                    }
+                    return null;
+                })
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        channel.receive("other-node;i1,u2,s");
+        channel.flush();
+
+        verify(secondLevelCache).evict(Item.class, 1L);
+        verify(secondLevelCache).evict(User.class, 2L);
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+        verify(eventPublisher).publishEvent(any(ItemSearchChangedEvent.class));
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    @Test
+    void createdEntitiesAreBroadcastAndReplayed() {
+        channel.onEntityCreated(new EntityCreatedEvent(Booking.class, 3L));
+        channel.onEntityCreated(new EntityCreatedEvent(User.class, 4L));
+        channel.flush();
+
+        InvalidationMessage message = InvalidationMessage.decode(sentPayloads(1).get(0));
+        assertEquals(message.getIds(Kind.BOOKING_CREATED), Set.of(3L));
+        assertEquals(message.getIds().keySet(), Set.of(Kind.BOOKING_CREATED));
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        channel.receive("other-node;b3,a5");
+        verify(eventPublisher, times(2)).publishEvent(event.capture());
+        assertTrue(event.getAllValues().stream()
+                .map(EntityCreatedEvent.class::cast)
+                .anyMatch(created -> created.getType() == Booking.class && created.getId() == 3L));
+        assertTrue(event.getAllValues().stream()
+                .map(EntityCreatedEvent.class::cast)
+                .anyMatch(created -> created.getType() == Item.class && created.getId() == 5L));
+    }
+
+    @Test
+    void receiveIgnoresOwnNotifications() {
+        channel.onItemChanged(new ItemChangedEvent(1L));
+        channel.flush();
+
+        channel.receive(sentPayloads(1).get(0));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void encodeSplitsLargeBatches() {
+        Set<Long> itemIds = LongStream.rangeClosed(1, 1_000).boxed().collect(Collectors.toSet());
+        InvalidationMessage message = new InvalidationMessage("node", Map.of(Kind.ITEM_CHANGED, itemIds,
+                Kind.USER_CHANGED, Set.of(7L)), true);
+
+        List<String> payloads = message.encode(100);
+
+        assertTrue(payloads.size() > 1);
+        assertTrue(payloads.stream().allMatch(payload -> payload.length() <= 100));
+        List<InvalidationMessage> decoded = payloads.stream()
+                .map(InvalidationMessage::decode)
+                .collect(Collectors.toList());
+        assertEquals(decoded.stream().flatMap(m -> m.getIds(Kind.ITEM_CHANGED).stream()).collect(Collectors.toSet()), itemIds);
+        assertTrue(decoded.stream().anyMatch(InvalidationMessage::isSearch));
+        assertTrue(decoded.stream().allMatch(m -> m.getNodeId().equals("node")));
+    }
+
+    @Test
+    void decodeRejectsMalformedPayload() {
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("no separator"));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("node;x1"));
+    }
+
+    @Test
+    void channelNameMustBeIdentifier() {
+        assertThrows(IllegalArgumentException.class, () -> new PostgresInvalidationChannel(jdbcTemplate,
+                new DataSourceProperties(), eventPublisher, Mockito.mock(EntityManagerFactory.class),
+                "shareit; DROP TABLE users", Duration.ofMillis(50)));
+    }
+
+    private List<String> sentPayloads(int count) {
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(count)).query(eq(NOTIFY), any(RowCallbackHandler.class), eq(CHANNEL),
+                payload.capture());
+        return payload.getAllValues();
+    }
+}
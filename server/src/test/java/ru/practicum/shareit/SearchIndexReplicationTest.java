@@ -0,0 +1,185 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import ru.practicum.shareit.cache.PostgresInvalidationChannel;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchChangedEvent;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class SearchIndexReplicationTest {
+
+    Map<Long, Item> items;
+    Map<Long, User> users;
+    Node first;
+    Node second;
+
+    @BeforeEach
+    void beforeEach() {
+        User owner = User.builder()
+                .id(1L)
+                .name("owner")
+                .email("owner@mail.ru")
+                .build();
+        users = new ConcurrentHashMap<>(Map.of(1L, owner));
+        items = new ConcurrentHashMap<>(Map.of(1L, Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner)
+                .build()));
+        ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito
+                .when(itemRepository.findAvailableAfter(eq(0L), any()))
+                .thenAnswer(invocation -> List.copyOf(items.values()));
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(items.get(invocation.<Long>getArgument(0))));
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<Long>getArgument(0))));
+        first = new Node(itemRepository, userRepository);
+        second = new Node(itemRepository, userRepository);
+        first.peer = second;
+        second.peer = first;
+    }
+
+    @Test
+    void remoteItemChangesReachOtherNodeIndex() {
+        assertEquals(List.of(1L), second.search("дрель"));
+
+        Item renamed = Item.builder()
+                .id(1L)
+                .name("Перфоратор")
+                .description("Мощный перфоратор")
+                .available(true)
+                .owner(users.get(1L))
+                .build();
+        items.put(1L, renamed);
+        first.itemChanged(renamed);
+        Item created = Item.builder()
+                .id(2L)
+                .name("Молоток")
+                .description("Тяжелый молоток")
+                .available(true)
+                .owner(users.get(1L))
+                .build();
+        items.put(2L, created);
+        first.itemChanged(created);
+        first.channel.flush();
+
+        assertEquals(List.of(), second.search("дрель"));
+        assertEquals(List.of(1L), second.search("перфоратор"));
+        assertEquals(List.of(2L), second.search("молоток"));
+
+        items.remove(2L);
+        first.engine.remove(2L);
+        first.publish(new ItemChangedEvent(2L));
+        first.publish(new ItemSearchChangedEvent());
+        first.channel.flush();
+
+        assertEquals(List.of(), second.search("молоток"));
+    }
+
+    @Test
+    void remoteOwnerRenameReachesOtherNodeIndex() {
+        assertEquals("owner", second.engine.search("дрель", PageRequest.of(0, 10)).get(0).getOwner().getName());
+
+        User renamed = User.builder()
+                .id(1L)
+                .name("renamed")
+                .email("owner@mail.ru")
+                .build();
+        users.put(1L, renamed);
+        first.engine.updateOwner(renamed);
+        first.publish(new UserChangedEvent(1L));
+        first.publish(new ItemSearchChangedEvent());
+        first.channel.flush();
+
+        assertEquals("renamed", second.engine.search("дрель", PageRequest.of(0, 10)).get(0).getOwner().getName());
+    }
+
+    static class Node {
+
+        final InMemoryItemSearchEngine engine;
+        final ItemSearchCache cache = new ItemSearchCache(100, Duration.ofMinutes(10));
+        final PostgresInvalidationChannel channel;
+        Node peer;
+
+        Node(ItemRepository itemRepository, UserRepository userRepository) {
+            engine = new InMemoryItemSearchEngine(itemRepository, userRepository);
+            engine.rebuild();
+            JdbcTemplate jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+            Mockito
+                    .doAnswer(invocation -> {
+                        peer.channel.receive(invocation.getArgument(3));
+                        return null;
+                    })
+                    .when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), anyString(), anyString());
+            EntityManagerFactory entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+            Mockito
+                    .when(entityManagerFactory.getCache())
+                    .thenReturn(Mockito.mock(Cache.class));
+            channel = new PostgresInvalidationChannel(jdbcTemplate, new DataSourceProperties(), this::publish,
+                    entityManagerFactory, "shareit_invalidation", Duration.ofMillis(50));
+        }
+
+        void itemChanged(Item item) {
+            engine.index(item);
+            publish(new ItemChangedEvent(item.getId()));
+            publish(new ItemSearchChangedEvent());
+        }
+
+        List<Long> search(String text) {
+            PageRequest pageable = PageRequest.of(0, 10);
+            return cache.get(text, pageable, () -> engine.search(text, pageable).stream()
+                            .map(ItemMapper::toItemDto)
+                            .collect(Collectors.toList())).stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toList());
+        }
+
+        void publish(Object event) {
+            if (event instanceof ItemChangedEvent) {
+                engine.onItemChanged((ItemChangedEvent) event);
+                channel.onItemChanged((ItemChangedEvent) event);
+            } else if (event instanceof UserChangedEvent) {
+                engine.onUserChanged((UserChangedEvent) event);
+                channel.onUserChanged((UserChangedEvent) event);
+            } else if (event instanceof ItemSearchChangedEvent) {
+                cache.onItemSearchChanged((ItemSearchChangedEvent) event);
+                channel.onItemSearchChanged((ItemSearchChangedEvent) event);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.cache.EntityVersions;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "shareit.cache.second-level.enabled=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SecondLevelCacheTest {
+
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository requestRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityVersions entityVersions;
+
+    @Test
+    void findByIdIsServedFromCache() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@mail.ru")
+                .build());
+        ItemRequest request = requestRepository.save(ItemRequest.builder()
+                .description("description")
+                .requestor(user)
+                .created(LocalDateTime.now())
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(user)
+                .itemRequest(request)
+                .build());
+        userRepository.findById(user.getId());
+        requestRepository.findById(request.getId());
+        itemRepository.findById(item.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(userRepository.findById(user.getId()).get().getName(), "user");
+        assertEquals(requestRepository.findById(request.getId()).get().getDescription(), "description");
+        assertEquals(itemRepository.findById(item.getId()).get().getName(), "item");
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getSecondLevelCacheHitCount() >= 3);
+    }
+
+    @Test
+    void incrementVersionKeepsOtherItemsCached() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@mail.ru")
+                .build());
+        Item first = itemRepository.save(Item.builder()
+                .name("first")
+                .description("description")
+                .available(true)
+                .owner(user)
+                .build());
+        Item second = itemRepository.save(Item.builder()
+                .name("second")
+                .description("description")
+                .available(true)
+                .owner(user)
+                .build());
+        Item cached = itemRepository.findById(first.getId()).get();
+        itemRepository.findById(second.getId());
+
+        entityVersions.incrementItem(first.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(itemRepository.findById(second.getId()).get().getName(), "second");
+        assertEquals(0, statistics.getPrepareStatementCount());
+        Item incremented = itemRepository.findById(first.getId()).get();
+        assertEquals(cached.getVersion(), incremented.getVersion());
+        assertEquals(cached.getViewVersion() + 1, incremented.getViewVersion());
+    }
+
+    @Test
+    void incrementVersionDoesNotConflictWithEditInFlight() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@mail.ru")
+                .build());
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(user)
+                .build());
+        Item edited = itemRepository.findById(item.getId()).get();
+
+        entityVersions.incrementItem(item.getId());
+        edited.setName("renamed");
+        itemRepository.save(edited);
+
+        Item saved = itemRepository.findById(item.getId()).get();
+        assertEquals("renamed", saved.getName());
+        assertEquals(edited.getVersion() + 1, saved.getVersion());
+        assertEquals(1, saved.getViewVersion());
+    }
+
+    @Test
+    void regionStatisticsArePublished() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@mail.ru")
+                .build());
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        assertNotNull(meterRegistry.find("cache.gets")
+                .tag("region", User.class.getName())
+                .tag("result", "hit")
+                .functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions")
+                .tag("region", User.class.getName())
+                .functionCounter());
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "shareit.threads.virtual.enabled=true")
+class VirtualThreadsTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Test
+    void requestsAreServedWhenEnabled() {
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/users", String.class).getStatusCode());
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.bookingTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.AvailabilityIndex;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+
+import javax.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AvailabilityIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    BookingRepository bookingRepository;
+    ItemRepository itemRepository;
+    AvailabilityIndex availabilityIndex;
+    Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        bookingRepository = Mockito.mock(BookingRepository.class);
+        itemRepository = Mockito.mock(ItemRepository.class);
+        availabilityIndex = new AvailabilityIndex(bookingRepository, itemRepository, 100, 16);
+        Mockito
+                .when(itemRepository.existsById(1L))
+                .thenReturn(true);
+        item = Item.builder()
+                .id(1L)
+                .build();
+        Mockito
+                .when(bookingRepository.findIntervals(eq(1L), any()))
+                .thenReturn(List.of(interval(1L, 0, 2), interval(2L, 1, 3), interval(3L, 5, 6)));
+    }
+
+    @Test
+    void isFreeLoadsScheduleOnce() {
+        assertFalse(availabilityIndex.isFree(1L, hour(2), hour(4)));
+        assertTrue(availabilityIndex.isFree(1L, hour(3), hour(5)));
+        assertFalse(availabilityIndex.isFree(1L, hour(4), hour(7)));
+        assertTrue(availabilityIndex.isFree(1L, hour(6), hour(8)));
+        assertFalse(availabilityIndex.isFree(1L, hour(-1), hour(10)));
+
+        verify(bookingRepository, times(1)).findIntervals(eq(1L), any());
+    }
+
+    @Test
+    void findFreeReturnsGapsInsideWindow() {
+        assertEquals(availabilityIndex.findFree(1L, hour(1), hour(10)).get(), List.of(
+                new FreeIntervalDto(hour(3), hour(5)),
+                new FreeIntervalDto(hour(6), hour(10))));
+        assertEquals(availabilityIndex.findFree(1L, hour(-2), hour(5)).get(), List.of(
+                new FreeIntervalDto(hour(-2), hour(0)),
+                new FreeIntervalDto(hour(3), hour(5))));
+        assertTrue(availabilityIndex.findFree(1L, hour(5), hour(6)).get().isEmpty());
+    }
+
+    @Test
+    void missingItemHasNoSchedule() {
+        Booking booking = booking(4L, 3, 5);
+        booking.setItem(Item.builder().id(2L).build());
+
+        assertTrue(availabilityIndex.findFree(2L, hour(1), hour(10)).isEmpty());
+        assertFalse(availabilityIndex.isFree(2L, hour(1), hour(10)));
+        assertEquals(availabilityIndex.book(booking, b -> b), booking);
+
+        availabilityIndex.isFree(1L, hour(3), hour(5));
+        availabilityIndex.evict(1L);
+        availabilityIndex.isFree(1L, hour(3), hour(5));
+        verify(bookingRepository, times(2)).findIntervals(eq(1L), any());
+        verify(bookingRepository, times(0)).findIntervals(eq(2L), any());
+    }
+
+    @Test
+    void bookRejectsOverlapAndAddsBooking() {
+        assertThrows(ValidationException.class, () -> availabilityIndex.book(booking(4L, 2, 4), b -> b));
+
+        availabilityIndex.book(booking(4L, 3, 5), b -> b);
+
+        assertFalse(availabilityIndex.isFree(1L, hour(4), hour(4).plusMinutes(1)));
+    }
+
+    @Test
+    void rejectedBookingFreesOnlyItsRange() {
+        Booking middle = booking(4L, 3, 5);
+        availabilityIndex.book(middle, b -> b);
+        assertThrows(ValidationException.class, () -> availabilityIndex.book(booking(6L, 4, 5), b -> b));
+
+        Booking overlapping = booking(2L, 1, 3);
+        overlapping.setStatus(Status.REJECTED);
+        availabilityIndex.update(overlapping);
+
+        assertTrue(availabilityIndex.isFree(1L, hour(2), hour(3)));
+        assertFalse(availabilityIndex.isFree(1L, hour(1), hour(2)));
+        assertFalse(availabilityIndex.isFree(1L, hour(4), hour(5)));
+
+        middle.setStatus(Status.REJECTED);
+        availabilityIndex.update(middle);
+        assertTrue(availabilityIndex.isFree(1L, hour(2), hour(5)));
+
+        middle.setStatus(Status.APPROVED);
+        availabilityIndex.update(middle);
+        assertFalse(availabilityIndex.isFree(1L, hour(4), hour(5)));
+    }
+
+    @Test
+    void emptyBookingsDoNotOccupyTime() {
+        Booking empty = booking(4L, 4, 4);
+        availabilityIndex.book(empty, b -> b);
+        empty.setStatus(Status.CANCELED);
+        availabilityIndex.update(empty);
+
+        assertTrue(availabilityIndex.isFree(1L, hour(3), hour(5)));
+    }
+
+    @Test
+    void remoteChangesReloadSchedule() {
+        availabilityIndex.isFree(1L, hour(3), hour(5));
+        availabilityIndex.onItemChanged(new ItemChangedEvent(1L));
+        availabilityIndex.isFree(1L, hour(3), hour(5));
+        availabilityIndex.onItemChanged(new ItemChangedEvent(1L, true));
+        availabilityIndex.isFree(1L, hour(3), hour(5));
+        availabilityIndex.onCachesReset(new CachesResetEvent());
+        availabilityIndex.update(booking(4L, 3, 5));
+        availabilityIndex.isFree(1L, hour(3), hour(5));
+
+        verify(bookingRepository, times(3)).findIntervals(eq(1L), any());
+    }
+
+    @Test
+    void scheduleIsNotReloadedWhileBookingIsInserted() throws Exception {
+        AtomicBoolean committed = new AtomicBoolean();
+        Mockito
+                .when(bookingRepository.findIntervals(eq(1L), any()))
+                .thenAnswer(invocation -> committed.get()
+                        ? List.of(interval(1L, 0, 2), interval(4L, 3, 5))
+                        : List.of(interval(1L, 0, 2)));
+        AtomicBoolean free = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> free.set(availabilityIndex.isFree(1L, hour(3), hour(5))));
+
+        availabilityIndex.book(booking(4L, 3, 5), b -> {
+            availabilityIndex.onItemChanged(new ItemChangedEvent(1L, true));
+            reader.start();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            committed.set(true);
+            return b;
+        });
+        reader.join();
+
+        assertFalse(free.get());
+    }
+
+    @Test
+    void constraintViolationIsReportedAsConflict() {
+        DataIntegrityViolationException overlap = new DataIntegrityViolationException("insert",
+                new IllegalStateException("violates exclusion constraint \"bookings_no_overlap\""));
+
+        assertThrows(ValidationException.class, () -> availabilityIndex.book(booking(4L, 3, 5), b -> {
+            throw overlap;
+        }));
+        assertThrows(DataIntegrityViolationException.class, () -> availabilityIndex.book(booking(4L, 3, 5), b -> {
+            throw new DataIntegrityViolationException("foreign key");
+        }));
+
+        verify(bookingRepository, times(2)).findIntervals(eq(1L), any());
+    }
+
+    private Booking booking(Long id, int startHour, int endHour) {
+        return Booking.builder()
+                .id(id)
+                .item(item)
+                .status(Status.WAITING)
+                .start(hour(startHour))
+                .end(hour(endHour))
+                .build();
+    }
+
+    private static LocalDateTime hour(int hour) {
+        return BASE.plusHours(hour);
+    }
+
+    private static BookingIntervalView interval(Long id, int startHour, int endHour) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return hour(startHour);
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return hour(endHour);
+            }
+        };
+    }
+}
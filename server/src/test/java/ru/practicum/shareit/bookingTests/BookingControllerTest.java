@@ -15,6 +15,8 @@ import ru.practicum.shareit.booking.controller.BookingController;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -26,6 +28,7 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -91,6 +94,25 @@ class BookingControllerTest {
         verify(bookingService, times(1)).findAllByRenterId(anyLong(), any(), any(), any());
     }
 
+    @Test
+    void getAllWithCursor() throws Exception {
+        String nextCursor = Cursor.encode(booking.getStart(), booking.getId());
+        Mockito
+                .when(bookingService.findPageByRenterId(user.getId(), State.ALL, "", 1))
+                .thenReturn(new CursorPage<>(List.of(booking), nextCursor));
+
+        mvc.perform(get("/bookings?cursor=&size=1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.HEADER, nextCursor));
+
+        verify(bookingService, times(1)).findPageByRenterId(anyLong(), any(), any(), any());
+        verify(bookingService, times(0)).findAllByRenterId(anyLong(), any(), any(), any());
+    }
+
     @Test
     void getAllByOwnerId() throws Exception {
         Mockito
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.bookingTests;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BookingQueryCountTest {
+
+    private static final int BOOKINGS = 50;
+
+    @Autowired
+    MockMvc mvc;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    User booker;
+    User owner;
+    int usersCount;
+
+    @BeforeEach
+    void beforeEach() {
+        booker = createUser();
+        owner = createUser();
+        for (int i = 0; i < BOOKINGS; i++) {
+            User itemOwner = createUser();
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("request" + i)
+                    .requestor(createUser())
+                    .created(LocalDateTime.now())
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(true)
+                    .owner(i % 2 == 0 ? owner : itemOwner)
+                    .itemRequest(request)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .status(Status.APPROVED)
+                    .start(LocalDateTime.now().plusDays(i + 1))
+                    .end(LocalDateTime.now().plusDays(i + 2))
+                    .build());
+        }
+    }
+
+    @Test
+    void getAllIssuesTwoStatements() throws Exception {
+        Statistics statistics = statistics();
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-id", booker.getId())
+                        .param("state", "ALL")
+                        .param("size", String.valueOf(BOOKINGS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(BOOKINGS)))
+                .andExpect(jsonPath("$[0].item.owner.name", notNullValue()))
+                .andExpect(jsonPath("$[0].item.itemRequest.requestor.name", notNullValue()));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllByOwnerIdIssuesTwoStatements() throws Exception {
+        Statistics statistics = statistics();
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-id", owner.getId())
+                        .param("state", "ALL")
+                        .param("size", String.valueOf(BOOKINGS)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(BOOKINGS / 2)))
+                .andExpect(jsonPath("$[0].booker.name", notNullValue()));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private User createUser() {
+        usersCount++;
+        return userRepository.save(User.builder()
+                .name("user" + usersCount)
+                .email("user" + usersCount + "@mail.ru")
+                .build());
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.bookingTests;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repository.BookingPageFilter;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.bookingTests.BookingQueryPlanTest$SqlRecorder")
+class BookingQueryPlanTest {
+
+    private static final int USERS = 200;
+    private static final int ITEMS = 2_000;
+    private static final int BOOKINGS = 20_000;
+    private static final LocalDateTime BASE = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository requestRepository;
+    @Autowired
+    CommentRepository commentRepository;
+
+    private final List<String> scans = new ArrayList<>();
+
+    @BeforeEach
+    void beforeEach() {
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> requests = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "user" + id, "user" + id + "@mail.ru"});
+            requests.add(new Object[]{id, "request" + id, id, Timestamp.valueOf(BASE.plusHours(id))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO requests (id, description, requestor_id, created) VALUES (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            long ownerId = id % USERS + 1;
+            items.add(new Object[]{id, "item" + id, "description" + id, true, ownerId, id % 10 == 0 ? ownerId : null});
+            comments.add(new Object[]{id, "comment" + id, id, (id * 7) % USERS + 1, Timestamp.valueOf(BASE)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, available, owner_id, item_request_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                comments);
+
+        List<Object[]> bookings = new ArrayList<>();
+        Status[] statuses = Status.values();
+        for (long id = 1; id <= BOOKINGS; id++) {
+            LocalDateTime start = BASE.plusHours(id);
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                    id % ITEMS + 1, (id * 13) % USERS + 1, statuses[(int) (id % statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void findersUseIndexes() {
+        Long userId = 42L;
+        User user = User.builder().id(userId).build();
+        LocalDateTime now = BASE.plusHours(BOOKINGS / 2);
+        Pageable page = PageRequest.of(0, 10);
+
+        assertIndexed("booker ALL", () -> bookingRepository.findAllByBookerIdOrderByStartDesc(userId, page));
+        assertIndexed("booker CURRENT", () -> bookingRepository
+                .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now, page));
+        assertIndexed("booker PAST", () -> bookingRepository
+                .findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now, page));
+        assertIndexed("booker FUTURE", () -> bookingRepository
+                .findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now, page));
+        assertIndexed("booker status", () -> bookingRepository
+                .findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page));
+        assertIndexed("owner ALL", () -> bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(userId, page));
+        assertIndexed("owner CURRENT", () -> bookingRepository
+                .findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now, page));
+        assertIndexed("owner PAST", () -> bookingRepository
+                .findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(userId, now, page));
+        assertIndexed("owner FUTURE", () -> bookingRepository
+                .findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(userId, now, page));
+        assertIndexed("owner status", () -> bookingRepository
+                .findAllByItem_OwnerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page));
+        assertIndexed("booker cursor", () -> bookingRepository
+                .findBookerPage(userId, BookingPageFilter.of(State.ALL, now, null), page));
+        assertIndexed("owner cursor", () -> bookingRepository
+                .findOwnerPage(userId, BookingPageFilter.of(State.ALL, now, null), page));
+        assertIndexed("last and next", () -> bookingRepository
+                .findLastAndNextBookings(List.of(1L, 2L, 3L), List.of(Status.APPROVED.name()), now));
+        assertIndexed("finished by booker", () -> bookingRepository
+                .findAllByItemIdAndAndBooker_IdAndEndBefore(1L, userId, now));
+        assertIndexed("next boundary", () -> bookingRepository.findNextBoundary(1L, now));
+        assertIndexed("owner items", () -> itemRepository.findAllByOwner(user, page));
+        assertIndexed("owner items cursor", () -> itemRepository
+                .findAllByOwnerAndIdGreaterThanOrderById(user, 0L, page));
+        assertIndexed("request answers", () -> itemRepository.findAllByItemRequest_IdIn(List.of(1L, 2L, 3L)));
+        assertIndexed("item comments", () -> commentRepository.findAllByItem_IdIn(List.of(1L, 2L, 3L)));
+        assertIndexed("requestor requests", () -> requestRepository
+                .findAllByRequestor_IdOrderByCreatedDesc(userId, page));
+        assertIndexed("requestor requests cursor", () -> requestRepository
+                .findRequestorPage(userId, now, Long.MAX_VALUE, page));
+        assertIndexed("other requests", () -> requestRepository
+                .findAllByRequestor_IdNotOrderByCreatedDesc(userId, page));
+        assertIndexed("other requests cursor", () -> requestRepository
+                .findOthersPage(userId, now, Long.MAX_VALUE, page));
+
+        assertTrue(scans.isEmpty(), String.join("\n\n", scans));
+    }
+
+    private void assertIndexed(String name, Runnable finder) {
+        SqlRecorder.STATEMENTS.clear();
+        finder.run();
+        assertFalse(SqlRecorder.STATEMENTS.isEmpty(), name);
+        for (String sql : SqlRecorder.STATEMENTS) {
+            String plan = explain(sql);
+            assertNotNull(plan, name);
+            if (plan.contains("tableScan")) {
+                scans.add(name + " выполняет полный просмотр таблицы:\n" + plan);
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -4,22 +4,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.State;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.StatementCounter;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.LastAndNextBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingPageFilter;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -33,6 +43,8 @@ class BookingRepositoryTest {
     ItemRequestRepository requestRepository;
     @Autowired
     BookingRepository bookingRepository;
+    @Autowired
+    EntityManager entityManager;
 
     User user;
     Item item;
@@ -74,6 +86,26 @@ class BookingRepositoryTest {
         end = LocalDateTime.of(2023, 1, 1, 1, 1, 1);
     }
 
+    @Test
+    void findNextBoundary() {
+        assertEquals(bookingRepository.findNextBoundary(item.getId(), start), booking.getStart());
+        assertEquals(bookingRepository.findNextBoundary(item.getId(), LocalDateTime.of(2022, 1, 15, 1, 1, 1)),
+                booking.getEnd());
+        assertNull(bookingRepository.findNextBoundary(item.getId(), end));
+    }
+
+    @Test
+    void findIntervals() {
+        List<BookingIntervalView> intervals = bookingRepository.findIntervals(item.getId(),
+                List.of(booking.getStatus()));
+
+        assertEquals(intervals.size(), 1);
+        assertEquals(intervals.get(0).getId(), booking.getId());
+        assertEquals(intervals.get(0).getStart(), booking.getStart());
+        assertEquals(intervals.get(0).getEnd(), booking.getEnd());
+        assertTrue(bookingRepository.findIntervals(item.getId(), List.of(Status.CANCELED)).isEmpty());
+    }
+
     @Test
     void findAllByBookerIdOrderByStartDesc() {
         List<Booking> bookings = bookingRepository.findAllByBookerIdOrderByStartDesc(1L, Pageable.unpaged()).toList();
@@ -167,6 +199,67 @@ class BookingRepositoryTest {
         assertEquals(bookings.size(), 1);
     }
 
+    @Test
+    void findLastAndNextBookings() {
+        Booking next = bookingRepository.save(Booking.builder()
+                .booker(user)
+                .status(Status.APPROVED)
+                .item(item)
+                .start(LocalDateTime.of(2022, 6, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2022, 7, 1, 1, 1, 1))
+                .build());
+        bookingRepository.save(Booking.builder()
+                .booker(user)
+                .status(Status.APPROVED)
+                .item(item)
+                .start(LocalDateTime.of(2022, 8, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2022, 9, 1, 1, 1, 1))
+                .build());
+        List<LastAndNextBookingView> views = bookingRepository.findLastAndNextBookings(List.of(item.getId()),
+                List.of(Status.APPROVED.name()), LocalDateTime.of(2022, 3, 1, 1, 1, 1));
+
+        assertEquals(views.size(), 1);
+        assertEquals(views.get(0).getItemId(), item.getId());
+        assertEquals(views.get(0).getLastBookingId(), booking.getId());
+        assertEquals(views.get(0).getLastBookerId(), user.getId());
+        assertEquals(views.get(0).getNextBookingId(), next.getId());
+        assertEquals(views.get(0).getNextBookerId(), user.getId());
+    }
+
+    @Test
+    void findBookerPage() {
+        Booking sameStart = bookingRepository.save(Booking.builder()
+                .booker(user)
+                .status(Status.WAITING)
+                .item(item)
+                .start(booking.getStart())
+                .end(LocalDateTime.of(2022, 3, 1, 1, 1, 1))
+                .build());
+        Booking earlier = bookingRepository.save(Booking.builder()
+                .booker(user)
+                .status(Status.APPROVED)
+                .item(item)
+                .start(LocalDateTime.of(2021, 6, 1, 1, 1, 1))
+                .end(LocalDateTime.of(2021, 7, 1, 1, 1, 1))
+                .build());
+        LocalDateTime now = LocalDateTime.of(2022, 2, 15, 1, 1, 1);
+
+        List<Booking> first = bookingRepository.findBookerPage(user.getId(),
+                BookingPageFilter.of(State.ALL, now, null), PageRequest.ofSize(2));
+        Cursor cursor = Cursor.decode(Cursor.encode(first.get(1).getStart(), first.get(1).getId()));
+        List<Booking> second = bookingRepository.findBookerPage(user.getId(),
+                BookingPageFilter.of(State.ALL, now, cursor), PageRequest.ofSize(2));
+
+        assertEquals(first, List.of(sameStart, booking));
+        assertEquals(second, List.of(earlier));
+        assertEquals(bookingRepository.findBookerPage(user.getId(), BookingPageFilter.of(State.PAST, now, null),
+                PageRequest.ofSize(10)), List.of(booking, earlier));
+        assertEquals(bookingRepository.findBookerPage(user.getId(), BookingPageFilter.of(State.CURRENT, now, null),
+                PageRequest.ofSize(10)), List.of(sameStart));
+        assertEquals(bookingRepository.findOwnerPage(user.getId(), BookingPageFilter.of(State.WAITING, now, null),
+                PageRequest.ofSize(10)), List.of(sameStart));
+    }
+
     @Test
     void findByItemAndEndBeforeOrderByEndDesc() {
         Booking booking1 = bookingRepository.findByItemAndEndBeforeOrderByEndDesc(item, end);
@@ -180,4 +273,37 @@ class BookingRepositoryTest {
 
         assertEquals(booking1.getItem(), item);
     }
-}
\ No newline at end of file
+
+    @Test
+    void listFindersIssueSingleStatement() {
+        StatementCounter counter = new StatementCounter(entityManager);
+        Long userId = user.getId();
+        LocalDateTime now = LocalDateTime.of(2022, 1, 15, 1, 1, 1);
+        Pageable page = PageRequest.of(0, 10);
+
+        counter.assertSingleStatement("booker ALL", () -> bookingRepository
+                .findAllByBookerIdOrderByStartDesc(userId, page));
+        counter.assertSingleStatement("booker CURRENT", () -> bookingRepository
+                .findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now, page));
+        counter.assertSingleStatement("booker PAST", () -> bookingRepository
+                .findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, end, page));
+        counter.assertSingleStatement("booker FUTURE", () -> bookingRepository
+                .findAllByBookerIdAndStartAfterOrderByStartDesc(userId, start, page));
+        counter.assertSingleStatement("booker status", () -> bookingRepository
+                .findAllByBookerIdAndStatusOrderByStartDesc(userId, Status.APPROVED, page));
+        counter.assertSingleStatement("owner ALL", () -> bookingRepository
+                .findAllByItem_OwnerIdOrderByStartDesc(userId, page));
+        counter.assertSingleStatement("owner CURRENT", () -> bookingRepository
+                .findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, now, now, page));
+        counter.assertSingleStatement("owner PAST", () -> bookingRepository
+                .findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(userId, end, page));
+        counter.assertSingleStatement("owner FUTURE", () -> bookingRepository
+                .findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(userId, start, page));
+        counter.assertSingleStatement("owner status", () -> bookingRepository
+                .findAllByItem_OwnerIdAndStatusOrderByStartDesc(userId, Status.APPROVED, page));
+        counter.assertSingleStatement("booker cursor", () -> bookingRepository
+                .findBookerPage(userId, BookingPageFilter.of(State.ALL, now, null), page));
+        counter.assertSingleStatement("owner cursor", () -> bookingRepository
+                .findOwnerPage(userId, BookingPageFilter.of(State.ALL, now, null), page));
+    }
+}
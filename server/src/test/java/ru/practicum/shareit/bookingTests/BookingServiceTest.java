@@ -4,23 +4,29 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,14 +37,20 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.ids.filter.enabled=false")
+@AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class BookingServiceTest {
 
     @Autowired
     BookingService bookingService;
 
+    @Autowired
+    MockMvc mvc;
+
     @MockBean
     BookingRepository bookingRepository;
 
@@ -121,6 +133,30 @@ class BookingServiceTest {
 
     }
 
+    @Test
+    void createFailWithOverlappingBooking() {
+        BookingIntervalView existing = Mockito.mock(BookingIntervalView.class);
+        Mockito.when(existing.getId()).thenReturn(2L);
+        Mockito.when(existing.getStart()).thenReturn(booking.getStart().minusDays(1));
+        Mockito.when(existing.getEnd()).thenReturn(booking.getStart().plusDays(1));
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(itemRepository.existsById(anyLong()))
+                .thenReturn(true);
+        Mockito
+                .when(bookingRepository.findIntervals(anyLong(), any()))
+                .thenReturn(List.of(existing));
+
+        assertThrows(ValidationException.class, () -> bookingService.create(booking, user2.getId()));
+
+        verify(bookingRepository, times(0)).save(any());
+    }
+
     @Test
     void createFailWithItemRepository() {
         Mockito
@@ -170,33 +206,77 @@ class BookingServiceTest {
     @Test
     void setStatus() {
         Mockito
-                .when(bookingRepository.save(any()))
-                .thenReturn(booking);
+                .when(bookingRepository.updateStatus(booking.getId(), Status.WAITING, Status.APPROVED))
+                .thenReturn(1);
+        Booking updated = Booking.builder()
+                .id(booking.getId())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(Status.APPROVED)
+                .version(1)
+                .build();
         Mockito
                 .when(bookingRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booking));
-        bookingService.setStatus(booking.getId(), user.getId(), true);
+                .thenReturn(Optional.of(booking), Optional.of(updated));
 
-        assertEquals(booking.getStatus(), Status.APPROVED);
+        Booking result = bookingService.setStatus(booking.getId(), user.getId(), true);
 
-        verify(bookingRepository, times(1)).findById(any());
-        verify(bookingRepository, times(1)).save(any());
+        assertEquals(result.getStatus(), Status.APPROVED);
+        assertEquals(result.getVersion(), 1);
+        assertEquals(booking.getStatus(), Status.WAITING);
+
+        verify(bookingRepository, times(2)).findById(any());
+        verify(bookingRepository, times(1)).updateStatus(booking.getId(), Status.WAITING, Status.APPROVED);
     }
 
     @Test
     void setStatusWithFalseApproved() {
         Mockito
-                .when(bookingRepository.save(any()))
-                .thenReturn(booking);
+                .when(bookingRepository.updateStatus(booking.getId(), Status.WAITING, Status.REJECTED))
+                .thenReturn(1);
+        Booking updated = Booking.builder()
+                .id(booking.getId())
+                .item(booking.getItem())
+                .booker(booking.getBooker())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(Status.REJECTED)
+                .version(1)
+                .build();
         Mockito
                 .when(bookingRepository.findById(anyLong()))
-                .thenReturn(Optional.of(booking));
-        bookingService.setStatus(booking.getId(), user.getId(), false);
+                .thenReturn(Optional.of(booking), Optional.of(updated));
 
-        assertEquals(booking.getStatus(), Status.REJECTED);
+        Booking result = bookingService.setStatus(booking.getId(), user.getId(), false);
 
-        verify(bookingRepository, times(1)).findById(any());
-        verify(bookingRepository, times(1)).save(any());
+        assertEquals(result.getStatus(), Status.REJECTED);
+        assertEquals(result.getVersion(), 1);
+        assertEquals(booking.getStatus(), Status.WAITING);
+
+        verify(bookingRepository, times(2)).findById(any());
+        verify(bookingRepository, times(1)).updateStatus(booking.getId(), Status.WAITING, Status.REJECTED);
+    }
+
+    @Test
+    void setStatusFailWhenChangedConcurrently() throws Exception {
+        Booking approved = Booking.builder()
+                .id(booking.getId())
+                .status(Status.APPROVED)
+                .build();
+        Mockito
+                .when(bookingRepository.findById(anyLong()))
+                .thenReturn(Optional.of(booking), Optional.of(approved));
+
+        mvc.perform(patch("/bookings/" + booking.getId())
+                        .header("X-Sharer-User-id", user.getId())
+                        .param("approved", "false"))
+                .andExpect(status().isConflict());
+
+        verify(bookingRepository, times(1)).updateStatus(booking.getId(), Status.WAITING, Status.REJECTED);
+        verify(bookingRepository, times(2)).findById(any());
+        verify(bookingRepository, times(0)).save(any());
     }
 
     @Test
@@ -316,20 +396,20 @@ class BookingServiceTest {
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(bookingRepository.findAllByBookerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+                .thenReturn(new SliceImpl<>(List.of()));
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(),
                         any(), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+                .thenReturn(new SliceImpl<>(List.of()));
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
         List<Booking> bookingsAll = bookingService.findAllByRenterId(user.getId(), State.ALL, 0, 10);
         List<Booking> bookingsFuture = bookingService.findAllByRenterId(user.getId(), State.FUTURE, 0, 10);
         List<Booking> bookingsPast = bookingService.findAllByRenterId(user.getId(), State.PAST, 0, 10);
@@ -346,7 +426,7 @@ class BookingServiceTest {
         assertThrows(IllegalArgumentException.class, () -> bookingService.findAllByRenterId(user.getId(),
                 State.UNSUPPORTED_STATUS, 0, 10));
 
-        verify(userRepository, times(6)).findById(any());
+        verify(userRepository, times(1)).findById(any());
         verify(bookingRepository, times(1)).findAllByBookerIdOrderByStartDesc(anyLong(), any());
         verify(bookingRepository, times(1)).findAllByBookerIdAndStartAfterOrderByStartDesc(
                 anyLong(), any(), any());
@@ -365,7 +445,7 @@ class BookingServiceTest {
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+                .thenReturn(new SliceImpl<>(List.of()));
         List<Booking> bookingsRejected = bookingService.findAllByRenterId(user.getId(), State.REJECTED,
                 0, 10);
 
@@ -396,21 +476,21 @@ class BookingServiceTest {
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(bookingRepository.findAllByItem_OwnerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
         Mockito
                 .when(bookingRepository.findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
         Mockito
                 .when(bookingRepository.findAllByItem_OwnerIdAndEndBeforeOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+                .thenReturn(new SliceImpl<>(List.of()));
         Mockito
                 .when(bookingRepository.findAllByItem_OwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(),
                         any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of()));
+                .thenReturn(new SliceImpl<>(List.of()));
         Mockito
                 .when(bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(anyLong(), any(),
                         any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .thenReturn(new SliceImpl<>(List.of(booking)));
         List<Booking> bookingsAll = bookingService.findAllByOwnerId(user.getId(), State.ALL, 0, 10);
         List<Booking> bookingsFuture = bookingService.findAllByOwnerId(user.getId(), State.FUTURE, 0, 10);
         List<Booking> bookingsPast = bookingService.findAllByOwnerId(user.getId(), State.PAST, 0, 10);
@@ -427,7 +507,7 @@ class BookingServiceTest {
         assertThrows(IllegalArgumentException.class, () -> bookingService.findAllByOwnerId(user.getId(),
                 State.UNSUPPORTED_STATUS, 0, 10));
 
-        verify(userRepository, times(6)).findById(any());
+        verify(userRepository, times(1)).findById(any());
         verify(bookingRepository, times(1)).findAllByItem_OwnerIdOrderByStartDesc(anyLong(), any());
         verify(bookingRepository, times(1)).findAllByItem_OwnerIdAndStartAfterOrderByStartDesc(
                 anyLong(), any(), any());
@@ -447,7 +527,7 @@ class BookingServiceTest {
         Mockito
                 .when(bookingRepository.findAllByItem_OwnerIdAndStatusOrderByStartDesc(anyLong(), any(),
                         any()))
-                .thenReturn(new PageImpl<>(List.of()));
+                .thenReturn(new SliceImpl<>(List.of()));
         List<Booking> bookingsRejected = bookingService.findAllByOwnerId(user.getId(), State.REJECTED,
                 0, 10);
 
@@ -476,4 +556,60 @@ class BookingServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> bookingService.create(booking, user.getId()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findPageByRenterId() {
+        Booking next = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(user)
+                .status(Status.WAITING)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .build();
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(bookingRepository.findBookerPage(anyLong(), any(), any()))
+                .thenReturn(List.of(booking, next));
+        CursorPage<Booking> page = bookingService.findPageByRenterId(user.getId(), State.ALL, "", 1);
+
+        assertEquals(page.getContent(), List.of(booking));
+        assertEquals(Cursor.decode(page.getNextCursor()).getId(), booking.getId());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.findPageByRenterId(user.getId(),
+                State.UNSUPPORTED_STATUS, "", 1));
+
+        verify(bookingRepository, times(1)).findBookerPage(anyLong(), any(), any());
+    }
+
+    @Test
+    void findPageByOwnerId() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(bookingRepository.findOwnerPage(anyLong(), any(), any()))
+                .thenReturn(List.of(booking));
+        for (State state : List.of(State.FUTURE, State.PAST, State.CURRENT, State.WAITING, State.REJECTED)) {
+            CursorPage<Booking> page = bookingService.findPageByOwnerId(user.getId(), state,
+                    Cursor.encode(booking.getStart(), booking.getId() + 1), 10);
+
+            assertEquals(page.getContent(), List.of(booking));
+        }
+
+        verify(bookingRepository, times(5)).findOwnerPage(anyLong(), any(), any());
+    }
+
+    @Test
+    void findPageFail() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> bookingService.findPageByRenterId(user.getId(),
+                State.ALL, "", 10));
+        assertThrows(EntityNotFoundException.class, () -> bookingService.findPageByOwnerId(user.getId(),
+                State.ALL, "", 10));
+    }
+}
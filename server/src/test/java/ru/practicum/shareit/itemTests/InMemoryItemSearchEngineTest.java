@@ -0,0 +1,242 @@
+package ru.practicum.shareit.itemTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class InMemoryItemSearchEngineTest {
+
+    ItemRepository itemRepository;
+    UserRepository userRepository;
+    InMemoryItemSearchEngine engine;
+    User user;
+    Item drill;
+    Item screwdriver;
+
+    @BeforeEach
+    void beforeEach() {
+        user = User.builder()
+                .id(1L)
+                .name("user")
+                .email("user@mail.ru")
+                .build();
+        drill = Item.builder()
+                .id(1L)
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(user)
+                .itemRequest(ItemRequest.builder()
+                        .id(5L)
+                        .build())
+                .build();
+        screwdriver = Item.builder()
+                .id(2L)
+                .name("Отвертка")
+                .description("Аккумуляторная отвертка, подходит вместо дрели")
+                .available(true)
+                .owner(user)
+                .build();
+        itemRepository = Mockito.mock(ItemRepository.class);
+        Mockito
+                .when(itemRepository.findAvailableAfter(eq(0L), any()))
+                .thenReturn(List.of(drill, screwdriver));
+        userRepository = Mockito.mock(UserRepository.class);
+        engine = new InMemoryItemSearchEngine(itemRepository, userRepository);
+        engine.rebuild();
+    }
+
+    @Test
+    void rebuild() {
+        assertEquals(2, engine.size());
+        assertTrue(engine.terms() > 0);
+        assertTrue(engine.bytesPerItem() > 0);
+        Mockito.verify(itemRepository, Mockito.times(1)).findAvailableAfter(anyLong(), any());
+    }
+
+    @Test
+    void searchRanksNameMatchesFirst() {
+        assertEquals(List.of(1L, 2L), ids(engine.search("ДРЕЛ", Pageable.unpaged())));
+        assertEquals(List.of(2L), ids(engine.search("дрел", PageRequest.of(1, 1))));
+        assertEquals(List.of(2L), ids(engine.search("ная отв", Pageable.unpaged())));
+        assertEquals(List.of(), ids(engine.search("молоток", Pageable.unpaged())));
+    }
+
+    @Test
+    void searchMatchesSubstringsOfTerms() {
+        assertEquals(List.of(2L), ids(engine.search("ккумулятор", Pageable.unpaged())));
+        assertEquals(List.of(2L), ids(engine.search("вместо", Pageable.unpaged())));
+        assertEquals(List.of(1L, 2L), ids(engine.search("ре", Pageable.unpaged())));
+        assertEquals(List.of(1L, 2L), ids(engine.search("д", Pageable.unpaged())));
+        assertEquals(List.of(), ids(engine.search("дрелька", Pageable.unpaged())));
+        assertEquals(List.of(), ids(engine.search("ертдр", Pageable.unpaged())));
+    }
+
+    @Test
+    void removingLastItemOfOwnerForgetsOwner() {
+        Item hammer = Item.builder()
+                .id(3L)
+                .name("Молоток")
+                .description("Тяжелый молоток")
+                .available(true)
+                .owner(User.builder()
+                        .id(2L)
+                        .name("other")
+                        .email("other@mail.ru")
+                        .build())
+                .build();
+        engine.index(hammer);
+        assertEquals(2, engine.owners());
+
+        hammer.setAvailable(false);
+        engine.index(hammer);
+        assertEquals(1, engine.owners());
+
+        engine.remove(1L);
+        assertEquals(1, engine.owners());
+        engine.remove(2L);
+        assertEquals(0, engine.owners());
+    }
+
+    @Test
+    void searchKeepsOwnerAndRequest() {
+        Item item = engine.search("простая", Pageable.unpaged()).get(0);
+
+        assertEquals(user.getEmail(), item.getOwner().getEmail());
+        assertEquals(5L, item.getItemRequest().getId());
+        assertTrue(item.getAvailable());
+    }
+
+    @Test
+    void indexUpdatesAndRemovesItems() {
+        drill.setName("Перфоратор");
+        engine.index(drill);
+        assertEquals(List.of(1L, 2L), ids(engine.search("дрел", Pageable.unpaged())));
+        assertEquals(List.of(1L), ids(engine.search("перфоратор", Pageable.unpaged())));
+
+        drill.setAvailable(false);
+        engine.index(drill);
+        assertEquals(List.of(), ids(engine.search("перфоратор", Pageable.unpaged())));
+
+        engine.remove(2L);
+        assertEquals(0, engine.size());
+        assertEquals(0, engine.terms());
+    }
+
+    @Test
+    void updateOwner() {
+        engine.updateOwner(User.builder()
+                .id(1L)
+                .name("user")
+                .email("update@mail.ru")
+                .build());
+
+        assertEquals("update@mail.ru", engine.search("дрель", Pageable.unpaged()).get(0).getOwner().getEmail());
+    }
+
+    @Test
+    void remoteItemChangeReindexesFromDatabase() {
+        Item hammer = Item.builder()
+                .id(3L)
+                .name("Молоток")
+                .description("Тяжелый молоток")
+                .available(true)
+                .owner(user)
+                .build();
+        Mockito
+                .when(itemRepository.findById(3L))
+                .thenReturn(Optional.of(hammer));
+        Mockito
+                .when(itemRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        engine.onItemChanged(new ItemChangedEvent(3L, true));
+        engine.onItemChanged(new ItemChangedEvent(1L, true));
+
+        assertEquals(List.of(3L), ids(engine.search("молоток", Pageable.unpaged())));
+        assertEquals(List.of(2L), ids(engine.search("дрел", Pageable.unpaged())));
+    }
+
+    @Test
+    void localChangesAreNotReloaded() {
+        engine.onItemChanged(new ItemChangedEvent(1L));
+        engine.onUserChanged(new UserChangedEvent(1L));
+
+        Mockito.verify(itemRepository, Mockito.never()).findById(anyLong());
+        Mockito.verify(userRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    void remoteOwnerChangeUpdatesIndexedOwner() {
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(User.builder()
+                        .id(1L)
+                        .name("renamed")
+                        .email("user@mail.ru")
+                        .build()));
+
+        engine.onUserChanged(new UserChangedEvent(1L, true));
+        engine.onUserChanged(new UserChangedEvent(2L, true));
+
+        assertEquals("renamed", engine.search("дрель", Pageable.unpaged()).get(0).getOwner().getName());
+        Mockito.verify(userRepository, Mockito.never()).findById(2L);
+    }
+
+    @Test
+    void searchIgnoresDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            engine.index(Item.builder()
+                    .id(3L)
+                    .name("INFO")
+                    .description("IKEA")
+                    .available(true)
+                    .owner(user)
+                    .build());
+
+            assertEquals(List.of(3L), ids(engine.search("info", Pageable.unpaged())));
+            assertEquals(List.of(3L), ids(engine.search("ikea", Pageable.unpaged())));
+            assertEquals(List.of(3L), ids(engine.search("IKEA", Pageable.unpaged())));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void bindTo() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        engine.bindTo(registry);
+
+        assertEquals(2, registry.get("shareit.search.index.items").gauge().value());
+        assertEquals(engine.bytesPerItem(), registry.get("shareit.search.index.bytes.per.item").gauge().value());
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.itemTests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.cache.EntityExistenceFilter;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@DirtiesContext
+@Slf4j
+class ItemAvailabilityBenchmark {
+
+    private static final int BOOKINGS = Integer.getInteger("benchmark.bookings", 10_000);
+    private static final int WARMUP_QUERIES = Integer.getInteger("benchmark.warmup", 2_000);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 10_000);
+    private static final long MAX_P99_MICROS = Long.getLong("benchmark.availability.max-p99-micros", 1_000);
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int WINDOW_HOURS = 7 * 24;
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    EntityExistenceFilter existenceFilter;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void availabilityLatency() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'owner@mail.ru'), " +
+                "(2, 'booker', 'booker@mail.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id) " +
+                "VALUES (1, 'item', 'description', true, 1)");
+        List<Object[]> bookings = new ArrayList<>();
+        for (long id = 1; id <= BOOKINGS; id++) {
+            LocalDateTime start = BASE.plusHours(2 * id);
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), 1L, 2L,
+                    (id % 2 == 0 ? Status.APPROVED : Status.WAITING).name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", bookings);
+        existenceFilter.rebuild();
+
+        Random random = new Random(42);
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            query(random);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            int free = query(random);
+            latencies[i] = (System.nanoTime() - start) / 1_000;
+            assertTrue(free > 0);
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[QUERIES / 2];
+        long p99 = latencies[(int) Math.ceil(QUERIES * 0.99) - 1];
+        log.info("availability: bookings={} queries={} p50={}us p99={}us max={}us",
+                BOOKINGS, QUERIES, p50, p99, latencies[QUERIES - 1]);
+
+        assertEquals(itemService.getAvailability(1L, 2L, BASE.plusHours(2), BASE.plusHours(5)).size(), 1);
+        assertTrue(p99 <= MAX_P99_MICROS);
+    }
+
+    private int query(Random random) {
+        LocalDateTime from = BASE.plusHours(random.nextInt(2 * BOOKINGS));
+        return itemService.getAvailability(1L, 2L, from, from.plusHours(WINDOW_HOURS)).size();
+    }
+}
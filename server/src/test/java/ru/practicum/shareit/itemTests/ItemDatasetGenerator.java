@@ -0,0 +1,74 @@
+package ru.practicum.shareit.itemTests;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+class ItemDatasetGenerator {
+
+    private static final String[] SYLLABLES = {"ка", "ро", "ли", "на", "то", "ме", "су", "ди", "ва", "ло", "пи", "ре",
+            "ко", "ба", "ти", "му", "за", "ле", "но", "ги"};
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final int ITEMS_PER_OWNER = 100;
+    private static final int BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random;
+    private final List<String> vocabulary = new ArrayList<>();
+
+    ItemDatasetGenerator(JdbcTemplate jdbcTemplate, Random random) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = random;
+        while (vocabulary.size() < VOCABULARY_SIZE) {
+            vocabulary.add(randomWord());
+        }
+    }
+
+    void generate(int itemsCount) {
+        int ownersCount = Math.max(1, itemsCount / ITEMS_PER_OWNER);
+        List<Object[]> owners = new ArrayList<>();
+        for (int i = 0; i < ownersCount; i++) {
+            owners.add(new Object[]{"owner" + i, "owner" + i + "@benchmark.ru"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email) VALUES (?, ?)", owners);
+        List<Long> ownerIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE email LIKE '%@benchmark.ru'",
+                Long.class);
+
+        List<Object[]> items = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < itemsCount; i++) {
+            items.add(new Object[]{text(2), text(8), random.nextInt(10) != 0,
+                    ownerIds.get(random.nextInt(ownerIds.size()))});
+            if (items.size() == BATCH_SIZE || i == itemsCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO items (name, description, available, owner_id) " +
+                        "VALUES (?, ?, ?, ?)", items);
+                items.clear();
+            }
+        }
+    }
+
+    String randomQuery() {
+        return vocabulary.get(random.nextInt(vocabulary.size()));
+    }
+
+    private String text(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(randomQuery());
+        }
+        return text.toString();
+    }
+
+    private String randomWord() {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(3);
+        for (int i = 0; i < length; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return word.toString();
+    }
+}
@@ -4,15 +4,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.StatementCounter;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -29,6 +33,8 @@ class ItemRepositoryTest {
     ItemRepository itemRepository;
     @Autowired
     ItemRequestRepository requestRepository;
+    @Autowired
+    EntityManager entityManager;
 
     private User user2;
     private Item item1;
@@ -71,15 +77,89 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue() {
-        List<Item> items = itemRepository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(item1.getName(),
-                item1.getName(), Pageable.unpaged()).toList();
+    void searchAvailable() {
+        List<Item> items = itemRepository.searchAvailable(item1.getName().toUpperCase(), Pageable.unpaged());
         assertNotNull(items);
         assertEquals(1, items.size());
         assertEquals(items.get(0), item1);
 
     }
 
+    @Test
+    void searchAvailableRanksNameMatchesFirst() {
+        Item item3 = itemRepository.save(Item.builder()
+                .name("item3")
+                .description("item2 spare")
+                .available(true)
+                .owner(user2)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("item2 copy")
+                .description("unavailable")
+                .available(false)
+                .owner(user2)
+                .build());
+        List<Item> items = itemRepository.searchAvailable("item2", Pageable.unpaged());
+        assertEquals(2, items.size());
+        assertEquals(items.get(0), item2);
+        assertEquals(items.get(1), item3);
+    }
+
+    @Test
+    void searchAvailableMatchesWildcardsLiterally() {
+        Item percent = itemRepository.save(Item.builder()
+                .name("100% cotton")
+                .description("bag")
+                .available(true)
+                .owner(user2)
+                .build());
+        Item underscore = itemRepository.save(Item.builder()
+                .name("snake_case")
+                .description("c:\\tools")
+                .available(true)
+                .owner(user2)
+                .build());
+
+        assertEquals(List.of(percent), itemRepository.searchAvailable(ItemSearchEngine.escapeLike("%"),
+                Pageable.unpaged()));
+        assertEquals(List.of(underscore), itemRepository.searchAvailable(ItemSearchEngine.escapeLike("_"),
+                Pageable.unpaged()));
+        assertEquals(List.of(underscore), itemRepository.searchAvailable(ItemSearchEngine.escapeLike("c:\\t"),
+                Pageable.unpaged()));
+        assertEquals(List.of(), itemRepository.searchAvailable(ItemSearchEngine.escapeLike("item_"),
+                Pageable.unpaged()));
+    }
+
+    @Test
+    void findAvailableAfter() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        Item first = itemRepository.save(Item.builder()
+                .name("first")
+                .description("first")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("hidden")
+                .description("hidden")
+                .available(false)
+                .owner(owner)
+                .build());
+        Item last = itemRepository.save(Item.builder()
+                .name("last")
+                .description("last")
+                .available(true)
+                .owner(owner)
+                .build());
+        List<Item> items = itemRepository.findAvailableAfter(first.getId(), Pageable.ofSize(10));
+        assertEquals(1, items.size());
+        assertEquals(items.get(0), last);
+        assertEquals(0, itemRepository.findAvailableAfter(last.getId(), Pageable.ofSize(10)).size());
+    }
+
     @Test
     void findAllByOwner() {
         List<Item> items = itemRepository.findAllByOwner(user2, Pageable.unpaged()).toList();
@@ -88,4 +168,63 @@ class ItemRepositoryTest {
         assertEquals(items.get(0), item2);
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void findAllByItemRequestIdIn() {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@mail.ru")
+                .build());
+        ItemRequest first = requestRepository.save(ItemRequest.builder()
+                .description("first")
+                .requestor(owner)
+                .created(LocalDateTime.now())
+                .build());
+        ItemRequest second = requestRepository.save(ItemRequest.builder()
+                .description("second")
+                .requestor(owner)
+                .created(LocalDateTime.now())
+                .build());
+        Item firstAnswer = itemRepository.save(Item.builder()
+                .name("first answer")
+                .description("first answer")
+                .available(true)
+                .owner(owner)
+                .itemRequest(first)
+                .build());
+        Item secondAnswer = itemRepository.save(Item.builder()
+                .name("second answer")
+                .description("second answer")
+                .available(true)
+                .owner(owner)
+                .itemRequest(second)
+                .build());
+        itemRepository.save(Item.builder()
+                .name("unrelated")
+                .description("unrelated")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertEquals(List.of(firstAnswer, secondAnswer),
+                itemRepository.findAllByItemRequest_IdIn(List.of(first.getId(), second.getId())));
+        assertEquals(List.of(secondAnswer), itemRepository.findAllByItemRequest_IdIn(List.of(second.getId())));
+    }
+
+    @Test
+    void listFindersIssueSingleStatement() {
+        StatementCounter counter = new StatementCounter(entityManager);
+        Pageable page = PageRequest.of(0, 10);
+
+        counter.assertSingleStatement("findAllByOwner", () -> itemRepository.findAllByOwner(user2, page));
+        counter.assertSingleStatement("findAllBy", () -> itemRepository.findAllBy(page));
+        counter.assertSingleStatement("searchAvailable", () -> itemRepository.searchAvailable("item", page));
+        counter.assertSingleStatement("findAvailableAfter", () -> itemRepository.findAvailableAfter(0L, page));
+        counter.assertSingleStatement("findAllByOwnerAndIdGreaterThanOrderById", () -> itemRepository
+                .findAllByOwnerAndIdGreaterThanOrderById(user2, 0L, page));
+        counter.assertSingleStatement("findAllByIdGreaterThanOrderById", () -> itemRepository
+                .findAllByIdGreaterThanOrderById(0L, page));
+        counter.assertSingleStatement("findAllByItemRequest_IdIn", () -> itemRepository
+                .findAllByItemRequest_IdIn(List.of(1L, 2L)));
+    }
+}
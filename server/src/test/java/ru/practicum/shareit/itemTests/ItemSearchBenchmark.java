@@ -0,0 +1,67 @@
+package ru.practicum.shareit.itemTests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.search.InMemoryItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@SpringBootTest(properties = "shareit.search.cache.maximum-size=0")
+@DirtiesContext
+@Slf4j
+class ItemSearchBenchmark {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 1_000_000);
+    private static final int WARMUP_QUERIES = Integer.getInteger("benchmark.warmup", 200);
+    private static final int QUERIES = Integer.getInteger("benchmark.queries", 2_000);
+    private static final long MAX_P99_MICROS = Long.getLong("benchmark.search.max-p99-micros", Long.MAX_VALUE);
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    ItemSearchEngine itemSearchEngine;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchLatency() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        assumeTrue("PostgreSQL".equals(database) || itemSearchEngine instanceof InMemoryItemSearchEngine,
+                "поиск через JPA измеряется только на PostgreSQL: -Dbenchmark.profile=default");
+        ItemDatasetGenerator generator = new ItemDatasetGenerator(jdbcTemplate, new Random(42));
+        generator.generate(ITEMS);
+        if (itemSearchEngine instanceof InMemoryItemSearchEngine) {
+            ((InMemoryItemSearchEngine) itemSearchEngine).rebuild();
+        }
+
+        for (int i = 0; i < WARMUP_QUERIES; i++) {
+            itemService.findItemsByText(generator.randomQuery(), 0, 10);
+        }
+        long[] latencies = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String text = generator.randomQuery();
+            long start = System.nanoTime();
+            itemService.findItemsByText(text, 0, 10);
+            latencies[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[QUERIES / 2];
+        long p99 = latencies[(int) Math.ceil(QUERIES * 0.99) - 1];
+        log.info("{}: items={} queries={} p50={}us p99={}us max={}us",
+                itemSearchEngine.getClass().getSimpleName(), ITEMS, QUERIES, p50, p99, latencies[QUERIES - 1]);
+
+        assertTrue(p99 <= MAX_P99_MICROS);
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.itemTests;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchChangedEvent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+
+    ItemSearchCache itemSearchCache;
+    AtomicInteger searches;
+    List<ItemDto> items;
+
+    @BeforeEach
+    void beforeEach() {
+        itemSearchCache = new ItemSearchCache(100, Duration.ofMinutes(10));
+        searches = new AtomicInteger();
+        items = List.of(ItemDto.builder()
+                .id(1L)
+                .name("item")
+                .build());
+    }
+
+    @Test
+    void getReusesResultForSameTextIgnoringCase() {
+        itemSearchCache.get("Item", PageRequest.of(0, 10), this::search);
+        List<ItemDto> cached = itemSearchCache.get("iTEM", PageRequest.of(0, 10), this::search);
+
+        assertEquals(cached, items);
+        assertEquals(searches.get(), 1);
+    }
+
+    @Test
+    void getSeparatesPages() {
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+        itemSearchCache.get("item", PageRequest.of(1, 10), this::search);
+        itemSearchCache.get("item", PageRequest.of(0, 20), this::search);
+
+        assertEquals(searches.get(), 3);
+    }
+
+    @Test
+    void invalidateStartsNewGeneration() {
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+        itemSearchCache.invalidate();
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+
+        assertEquals(searches.get(), 2);
+    }
+
+    @Test
+    void eventsStartNewGeneration() {
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+        itemSearchCache.onItemSearchChanged(new ItemSearchChangedEvent());
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+        itemSearchCache.onCachesReset(new CachesResetEvent());
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+
+        assertEquals(searches.get(), 3);
+    }
+
+    @Test
+    void hitRatioIsPublished() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        itemSearchCache.bindTo(registry);
+
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+        itemSearchCache.get("item", PageRequest.of(0, 10), this::search);
+
+        assertEquals(registry.get("shareit.search.cache.hit.ratio").gauge().value(), 0.5);
+        assertEquals(registry.get("cache.gets").tag("cache", "items.search").tag("result", "hit")
+                .functionCounter().count(), 1);
+    }
+
+    private List<ItemDto> search() {
+        searches.incrementAndGet();
+        return items;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.itemTests;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ItemServiceQueryCountTest {
+
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    User owner;
+    User booker;
+    int usersCount;
+
+    @BeforeEach
+    void beforeEach() {
+        owner = createUser();
+        booker = createUser();
+        for (int i = 0; i < 12; i++) {
+            createItemWithHistory(owner, booker);
+        }
+    }
+
+    @Test
+    void readAllByUserIdDoesNotDependOnTableSize() {
+        countReadAllByUserId();
+        long[] before = countReadAllByUserId();
+
+        User anotherOwner = createUser();
+        for (int i = 0; i < 30; i++) {
+            createItemWithHistory(anotherOwner, booker);
+        }
+        long[] after = countReadAllByUserId();
+
+        assertEquals(before[0], after[0]);
+        assertEquals(before[1], after[1]);
+    }
+
+    private long[] countReadAllByUserId() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<ItemBookingDto> items = itemService.readAllByUserId(owner.getId(), 0, 10);
+
+        assertEquals(10, items.size());
+        assertNotNull(items.get(0).getLastBooking());
+        assertEquals(1, items.get(0).getComments().size());
+        return new long[]{statistics.getPrepareStatementCount(), statistics.getEntityLoadCount()};
+    }
+
+    private User createUser() {
+        usersCount++;
+        return userRepository.save(User.builder()
+                .name("user" + usersCount)
+                .email("user" + usersCount + "@mail.ru")
+                .build());
+    }
+
+    private void createItemWithHistory(User itemOwner, User itemBooker) {
+        Item item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("description")
+                .available(true)
+                .owner(itemOwner)
+                .build());
+        for (int i = 1; i <= 3; i++) {
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(itemBooker)
+                    .status(Status.APPROVED)
+                    .start(LocalDateTime.now().minusDays(i * 2L))
+                    .end(LocalDateTime.now().minusDays(i * 2L - 1))
+                    .build());
+        }
+        commentRepository.save(Comment.builder()
+                .item(item)
+                .author(itemBooker)
+                .text("text")
+                .created(LocalDateTime.now())
+                .build());
+    }
+}
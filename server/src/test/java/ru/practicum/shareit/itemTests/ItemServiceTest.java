@@ -6,10 +6,12 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.FreeIntervalDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
@@ -20,6 +22,8 @@ import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -36,7 +40,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.ids.filter.enabled=false")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ItemServiceTest {
     @Autowired
@@ -138,13 +142,13 @@ class ItemServiceTest {
     void readAll() {
         List<Item> items = List.of(item);
         Mockito
-                .when(itemRepository.findAll((Pageable) any()))
-                .thenReturn(new PageImpl<>(items));
+                .when(itemRepository.findAllBy(any()))
+                .thenReturn(new SliceImpl<>(items));
         List<Item> items2 = itemService.readAll(0, 10);
 
         assertEquals(items2.size(), 1);
 
-        verify(itemRepository, times(1)).findAll((Pageable) any());
+        verify(itemRepository, times(1)).findAllBy(any());
     }
 
     @Test
@@ -155,7 +159,7 @@ class ItemServiceTest {
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(itemRepository.findAllByOwner(any(), any()))
-                .thenReturn(new PageImpl<>(items));
+                .thenReturn(new SliceImpl<>(items));
         List<ItemBookingDto> items2 = itemService.readAllByUserId(1L, 1, 10);
 
         assertEquals(items2.size(), 1);
@@ -188,6 +192,43 @@ class ItemServiceTest {
         verify(itemRepository, times(1)).save(any());
     }
 
+    @Test
+    void updateRetriesOnConcurrentChange() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(itemRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L))
+                .thenReturn(item);
+
+        assertEquals(itemService.update(1L, itemUpdate, user.getId()), item);
+
+        verify(itemRepository, times(2)).findById(anyLong());
+        verify(itemRepository, times(2)).save(any());
+    }
+
+    @Test
+    void updateFailsAfterRepeatedConflicts() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(itemRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> itemService.update(1L, itemUpdate, user.getId()));
+
+        verify(itemRepository, times(3)).save(any());
+    }
+
     @Test
     void updateFailWithoutItem() {
         Mockito
@@ -247,6 +288,34 @@ class ItemServiceTest {
         verify(commentRepository, times(1)).findAllByItem(any());
     }
 
+    @Test
+    void getItemByUserIdIsCachedUntilItemChanges() {
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(itemRepository.save(any()))
+                .thenReturn(item);
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(commentRepository.findAllByItem(any()))
+                .thenReturn(List.of(comment));
+
+        itemService.getItemByUserId(1L, 1L);
+        itemService.getItemByUserId(1L, 1L);
+
+        verify(itemRepository, times(1)).findById(anyLong());
+        verify(commentRepository, times(1)).findAllByItem(any());
+
+        itemService.update(1L, itemUpdate, user.getId());
+        itemService.getItemByUserId(1L, 1L);
+
+        verify(itemRepository, times(3)).findById(anyLong());
+        verify(commentRepository, times(2)).findAllByItem(any());
+    }
+
     @Test
     void getItemByUserIdFailWithoutItem() {
         Mockito
@@ -264,6 +333,43 @@ class ItemServiceTest {
         verify(itemRepository, times(1)).findById(anyLong());
     }
 
+    @Test
+    void getAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        BookingIntervalView booked = Mockito.mock(BookingIntervalView.class);
+        Mockito.when(booked.getId()).thenReturn(1L);
+        Mockito.when(booked.getStart()).thenReturn(from.plusDays(1));
+        Mockito.when(booked.getEnd()).thenReturn(from.plusDays(2));
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(itemRepository.existsById(1L))
+                .thenReturn(true);
+        Mockito
+                .when(bookingRepository.findIntervals(anyLong(), any()))
+                .thenReturn(List.of(booked));
+
+        assertEquals(itemService.getAvailability(1L, 1L, from, from.plusDays(3)), List.of(
+                new FreeIntervalDto(from, from.plusDays(1)),
+                new FreeIntervalDto(from.plusDays(2), from.plusDays(3))));
+        assertThrows(EntityNotFoundException.class, () -> itemService.getAvailability(2L, 1L, from,
+                from.plusDays(3)));
+        assertThrows(IllegalArgumentException.class, () -> itemService.getAvailability(1L, 1L, from, from));
+
+        verify(bookingRepository, times(1)).findIntervals(anyLong(), any());
+    }
+
+    @Test
+    void getAvailabilityFailWithoutUser() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> itemService.getAvailability(1L, 1L,
+                LocalDateTime.now(), LocalDateTime.now().plusDays(1)));
+    }
+
     @Test
     void getItemByUserIdWithAnotherOwner() {
         Mockito
@@ -299,15 +405,40 @@ class ItemServiceTest {
     @Test
     void findItemsByText() {
         Mockito
-                .when(itemRepository.findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(item)));
+                .when(itemRepository.searchAvailable(any(), any()))
+                .thenReturn(List.of(item));
         String text = "item";
         List<ItemDto> items = itemService.findItemsByText(text, 1, 10);
 
         assertEquals(items.size(), 1);
 
-        verify(itemRepository, times(1))
-                .findByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(any(), any(), any());
+        verify(itemRepository, times(1)).searchAvailable(any(), any());
+    }
+
+    @Test
+    void findItemsByTextIsCachedUntilItemChanges() {
+        Mockito
+                .when(itemRepository.searchAvailable(any(), any()))
+                .thenReturn(List.of(item));
+        Mockito
+                .when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(itemRepository.save(any()))
+                .thenReturn(item);
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+
+        itemService.findItemsByText("item", 0, 10);
+        itemService.findItemsByText("ITEM", 0, 10);
+
+        verify(itemRepository, times(1)).searchAvailable(any(), any());
+
+        itemService.update(1L, itemUpdate, user.getId());
+        itemService.findItemsByText("item", 0, 10);
+
+        verify(itemRepository, times(2)).searchAvailable(any(), any());
     }
 
     @Test
@@ -409,4 +540,42 @@ class ItemServiceTest {
         assertNotNull(booking2.getStart());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void readPageByUserId() {
+        Item next = Item.builder()
+                .id(2L)
+                .name("item2")
+                .description("description2")
+                .available(true)
+                .owner(user)
+                .build();
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(itemRepository.findAllByOwnerAndIdGreaterThanOrderById(any(), any(), any()))
+                .thenReturn(List.of(item, next));
+        CursorPage<ItemBookingDto> page = itemService.readPageByUserId(user.getId(), "", 1);
+
+        assertEquals(page.getContent().size(), 1);
+        assertEquals(page.getContent().get(0).getId(), item.getId());
+        assertEquals(Cursor.decode(page.getNextCursor()).getId(), item.getId());
+
+        verify(itemRepository, times(1)).findAllByOwnerAndIdGreaterThanOrderById(user, 0L,
+                CursorPage.limit(1));
+    }
+
+    @Test
+    void readPage() {
+        Mockito
+                .when(itemRepository.findAllByIdGreaterThanOrderById(any(), any()))
+                .thenReturn(List.of(item));
+        CursorPage<Item> page = itemService.readPage(Cursor.encode(0L), 10);
+
+        assertEquals(page.getContent(), List.of(item));
+        assertNull(page.getNextCursor());
+
+        verify(itemRepository, times(1)).findAllByIdGreaterThanOrderById(0L, CursorPage.limit(10));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.itemTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.service.ItemChangedEvent;
+import ru.practicum.shareit.item.service.ItemViewCache;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemViewCacheTest {
+
+    ItemViewCache itemViewCache;
+    ItemBookingDto ownerView;
+    ItemBookingDto publicView;
+
+    @BeforeEach
+    void beforeEach() {
+        itemViewCache = new ItemViewCache(100, Duration.ofMinutes(10));
+        ownerView = ItemBookingDto.builder()
+                .id(1L)
+                .name("owner")
+                .build();
+        publicView = ItemBookingDto.builder()
+                .id(1L)
+                .name("public")
+                .build();
+    }
+
+    @Test
+    void findSeparatesOwnerAndPublicViews() {
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 1L, 1L, ownerView, null);
+        itemViewCache.putPublicView(itemViewCache.stamp(), 1L, 1L, publicView);
+
+        assertEquals(itemViewCache.find(1L, 1L), ownerView);
+        assertEquals(itemViewCache.find(1L, 2L), publicView);
+        assertNull(itemViewCache.find(2L, 1L));
+    }
+
+    @Test
+    void findDoesNotServeOwnerViewToOtherUsers() {
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 1L, 1L, ownerView, null);
+
+        assertNull(itemViewCache.find(1L, 2L));
+    }
+
+    @Test
+    void onItemChangedInvalidatesBothViews() {
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 1L, 1L, ownerView, null);
+        itemViewCache.putPublicView(itemViewCache.stamp(), 1L, 1L, publicView);
+
+        itemViewCache.onItemChanged(new ItemChangedEvent(1L));
+
+        assertNull(itemViewCache.find(1L, 1L));
+        assertNull(itemViewCache.find(1L, 2L));
+    }
+
+    @Test
+    void onCachesResetInvalidatesAllViews() {
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 1L, 1L, ownerView, null);
+        itemViewCache.putPublicView(itemViewCache.stamp(), 2L, 1L, publicView);
+
+        itemViewCache.onCachesReset(new CachesResetEvent());
+
+        assertNull(itemViewCache.find(1L, 1L));
+        assertNull(itemViewCache.find(2L, 2L));
+    }
+
+    @Test
+    void onUserChangedInvalidatesAllViews() {
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 1L, 1L, ownerView, null);
+        itemViewCache.putPublicView(itemViewCache.stamp(), 2L, 1L, publicView);
+        long stamp = itemViewCache.stamp();
+
+        itemViewCache.onUserChanged(new UserChangedEvent(3L));
+        itemViewCache.putPublicView(stamp, 3L, 1L, publicView);
+
+        assertNull(itemViewCache.find(1L, 1L));
+        assertNull(itemViewCache.find(2L, 2L));
+        assertNull(itemViewCache.find(3L, 2L));
+    }
+
+    @Test
+    void putAfterInvalidationIsDropped() {
+        long stamp = itemViewCache.stamp();
+        itemViewCache.onItemChanged(new ItemChangedEvent(1L));
+        itemViewCache.putPublicView(stamp, 1L, 1L, publicView);
+
+        assertNull(itemViewCache.find(1L, 2L));
+    }
+
+    @Test
+    void ownerViewExpiresAtBookingBoundary() {
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 1L, 1L, ownerView, LocalDateTime.now().minusSeconds(1));
+        itemViewCache.putOwnerView(itemViewCache.stamp(), 2L, 1L, ownerView, LocalDateTime.now().plusHours(1));
+
+        assertNull(itemViewCache.find(1L, 1L));
+        assertEquals(itemViewCache.find(2L, 1L), ownerView);
+    }
+}
@@ -4,10 +4,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -17,6 +19,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -66,4 +69,77 @@ class ItemRequestRepositoryTest {
 
         assertEquals(requests.size(), 1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByRequestorIdNotOrderByCreatedDesc() {
+        User requestor = userRepository.save(User.builder()
+                .name("requestor")
+                .email("requestor@mail.ru")
+                .build());
+        User other = userRepository.save(User.builder()
+                .name("other")
+                .email("other@mail.ru")
+                .build());
+        LocalDateTime created = LocalDateTime.now().plusDays(1);
+        requestRepository.save(ItemRequest.builder()
+                .description("own")
+                .requestor(requestor)
+                .created(created.plusHours(1))
+                .build());
+        ItemRequest older = requestRepository.save(ItemRequest.builder()
+                .description("older")
+                .requestor(other)
+                .created(created)
+                .build());
+        ItemRequest newer = requestRepository.save(ItemRequest.builder()
+                .description("newer")
+                .requestor(other)
+                .created(created.plusMinutes(1))
+                .build());
+
+        List<ItemRequest> requests = requestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(requestor.getId(),
+                PageRequest.of(0, 2)).toList();
+
+        assertEquals(requests, List.of(newer, older));
+    }
+
+    @Test
+    void findRequestorPageAndOthersPage() {
+        User requestor = userRepository.save(User.builder()
+                .name("requestor")
+                .email("requestor@mail.ru")
+                .build());
+        User other = userRepository.save(User.builder()
+                .name("other")
+                .email("other@mail.ru")
+                .build());
+        LocalDateTime created = LocalDateTime.of(2022, 1, 1, 1, 1, 1);
+        ItemRequest newer = requestRepository.save(ItemRequest.builder()
+                .description("newer")
+                .requestor(requestor)
+                .created(created)
+                .build());
+        ItemRequest older = requestRepository.save(ItemRequest.builder()
+                .description("older")
+                .requestor(requestor)
+                .created(created.minusDays(1))
+                .build());
+        ItemRequest foreign = requestRepository.save(ItemRequest.builder()
+                .description("foreign")
+                .requestor(other)
+                .created(created)
+                .build());
+
+        List<ItemRequest> first = requestRepository.findRequestorPage(requestor.getId(), Cursor.MAX_TIME,
+                Long.MAX_VALUE, PageRequest.ofSize(1));
+        List<ItemRequest> second = requestRepository.findRequestorPage(requestor.getId(), first.get(0).getCreated(),
+                first.get(0).getId(), PageRequest.ofSize(1));
+        List<ItemRequest> others = requestRepository.findOthersPage(requestor.getId(), created, newer.getId() + 10,
+                PageRequest.ofSize(10));
+
+        assertEquals(first, List.of(newer));
+        assertEquals(second, List.of(older));
+        assertTrue(others.contains(foreign));
+        assertTrue(others.stream().noneMatch(itemRequest -> itemRequest.getRequestor().equals(requestor)));
+    }
+}
@@ -6,8 +6,8 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,6 +17,8 @@ import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.ItemRequestWithAnswersDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -29,13 +31,15 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.ids.filter.enabled=false")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 class ItemRequestServiceTest {
 
@@ -133,11 +137,15 @@ class ItemRequestServiceTest {
                 .thenReturn(Optional.of(user));
         Mockito
                 .when(requestRepository.findAllByRequestor_IdOrderByCreatedDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(request)));
-        request.setItems(List.of(item));
+                .thenReturn(new SliceImpl<>(List.of(request)));
+        Mockito
+                .when(itemRepository.findAllByItemRequest_IdIn(List.of(request.getId())))
+                .thenReturn(List.of(item));
         List<ItemRequestWithAnswersDto> requests = requestService.getAllByRequestorId(user.getId(), 0, 10);
 
         assertEquals(requests.size(), 1);
+        assertEquals(requests.get(0).getItems().size(), 1);
+        assertEquals(requests.get(0).getItems().get(0).getId(), item.getId());
 
         verify(userRepository, times(1)).findById(anyLong());
         verify(requestRepository, times(1)).findAllByRequestor_IdOrderByCreatedDesc(anyLong(),
@@ -163,10 +171,13 @@ class ItemRequestServiceTest {
         Mockito
                 .when(requestRepository.findById(anyLong()))
                 .thenReturn(Optional.of(request));
-        request.setItems(List.of(item));
+        Mockito
+                .when(itemRepository.findAllByItemRequest_IdIn(List.of(request.getId())))
+                .thenReturn(List.of(item));
         ItemRequestWithAnswersDto request1 = requestService.getById(user.getId(), request.getId());
 
         assertEquals(request1.getId(), request.getId());
+        assertEquals(request1.getItems().size(), 1);
 
         verify(userRepository, times(1)).findById(anyLong());
         verify(requestRepository, times(1)).findById(anyLong());
@@ -201,13 +212,73 @@ class ItemRequestServiceTest {
     @Test
     void getAll() {
         Mockito
-                .when(requestRepository.findAll((Pageable) any()))
-                .thenReturn(new PageImpl<>(List.of(request)));
-        request.setItems(List.of(item));
+                .when(requestRepository.findAllByRequestor_IdNotOrderByCreatedDesc(anyLong(), any()))
+                .thenReturn(new SliceImpl<>(List.of(request)));
+        Mockito
+                .when(itemRepository.findAllByItemRequest_IdIn(any()))
+                .thenReturn(List.of(item));
         List<ItemRequestWithAnswersDto> requests = requestService.getAll(user2.getId(), 0, 10);
 
         assertEquals(requests.size(), 1);
 
-        verify(requestRepository, times(1)).findAll((Pageable) any());
+        verify(requestRepository, times(1)).findAllByRequestor_IdNotOrderByCreatedDesc(user2.getId(),
+                PageRequest.of(0, 10));
+    }
+
+    @Test
+    void getPageByRequestorId() {
+        ItemRequest older = ItemRequest.builder()
+                .id(2L)
+                .description("older")
+                .requestor(user)
+                .created(request.getCreated().minusDays(1))
+                .items(List.of())
+                .build();
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        Mockito
+                .when(requestRepository.findRequestorPage(anyLong(), any(), any(), any()))
+                .thenReturn(List.of(request, older));
+        Mockito
+                .when(itemRepository.findAllByItemRequest_IdIn(any()))
+                .thenReturn(List.of(item));
+        CursorPage<ItemRequestWithAnswersDto> page = requestService.getPageByRequestorId(user.getId(), "", 1);
+        Cursor cursor = Cursor.decode(page.getNextCursor());
+
+        assertEquals(page.getContent().size(), 1);
+        assertEquals(page.getContent().get(0).getId(), request.getId());
+        assertEquals(page.getContent().get(0).getItems().size(), 1);
+        assertEquals(cursor.getTime(), request.getCreated());
+        assertEquals(cursor.getId(), request.getId());
+
+        verify(requestRepository, times(1)).findRequestorPage(user.getId(), Cursor.MAX_TIME, Long.MAX_VALUE,
+                CursorPage.limit(1));
+        verify(itemRepository, times(1)).findAllByItemRequest_IdIn(List.of(request.getId()));
+    }
+
+    @Test
+    void getPageByRequestorIdFail() {
+        Mockito
+                .when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> requestService.getPageByRequestorId(user.getId(), "", 1));
+    }
+
+    @Test
+    void getPage() {
+        String cursor = Cursor.encode(request.getCreated(), request.getId());
+        Mockito
+                .when(itemRepository.findAllByItemRequest_IdIn(any()))
+                .thenReturn(List.of(item));
+        Mockito
+                .when(requestRepository.findOthersPage(eq(user2.getId()), eq(request.getCreated()),
+                        eq(request.getId()), any()))
+                .thenReturn(List.of(request));
+        CursorPage<ItemRequestWithAnswersDto> page = requestService.getPage(user2.getId(), cursor, 10);
+
+        assertEquals(page.getContent().size(), 1);
+        assertNull(page.getNextCursor());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.userTests;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.cache.CachesResetEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserChangedEvent;
+import ru.practicum.shareit.user.service.UserResolver;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class UserResolverTest {
+
+    UserRepository userRepository;
+    UserResolver userResolver;
+    User user;
+
+    @BeforeEach
+    void beforeEach() {
+        userRepository = Mockito.mock(UserRepository.class);
+        userResolver = new UserResolver(userRepository, 100, Duration.ofMinutes(5));
+        user = User.builder()
+                .id(1L)
+                .name("user")
+                .email("user@mail.ru")
+                .build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findByIdCachesFoundUser() {
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        assertEquals(userResolver.findById(1L), Optional.of(user));
+        assertEquals(userResolver.findById(1L), Optional.of(user));
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findByIdDoesNotCacheMissingUser() {
+        Mockito
+                .when(userRepository.findById(2L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(userResolver.findById(2L).isEmpty());
+        assertTrue(userResolver.findById(2L).isEmpty());
+
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void evictReloadsUser() {
+        User renamed = User.builder()
+                .id(1L)
+                .name("renamed")
+                .email("user@mail.ru")
+                .build();
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user), Optional.of(renamed));
+
+        assertEquals(userResolver.findById(1L).get().getName(), "user");
+        userResolver.evict(1L);
+        assertEquals(userResolver.findById(1L).get().getName(), "renamed");
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void evictDuringLoadIsNotOverwritten() throws InterruptedException {
+        CountDownLatch evicting = new CountDownLatch(1);
+        Thread evictor = new Thread(() -> {
+            evicting.countDown();
+            userResolver.evict(1L);
+        });
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenAnswer(invocation -> {
+                    if (!evictor.isAlive() && evicting.getCount() > 0) {
+                        evictor.start();
+                        evicting.await();
+                        Thread.sleep(50);
+                    }
+                    return Optional.of(user);
+                });
+
+        userResolver.findById(1L);
+        evictor.join();
+        userResolver.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void eventsEvictUsers() {
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        userResolver.findById(1L);
+        userResolver.onUserChanged(new UserChangedEvent(1L));
+        userResolver.findById(1L);
+        userResolver.onCachesReset(new CachesResetEvent());
+        userResolver.findById(1L);
+
+        verify(userRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void findByIdResolvesOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Mockito
+                .when(userRepository.findById(2L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(userResolver.findById(2L).isEmpty());
+        assertTrue(userResolver.findById(2L).isEmpty());
+
+        verify(userRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void evictClearsRequestScope() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        Mockito
+                .when(userRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        userResolver.findById(1L);
+        userResolver.evict(1L);
+        userResolver.findById(1L);
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+}
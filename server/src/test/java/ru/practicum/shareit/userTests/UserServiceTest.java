@@ -6,10 +6,11 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -20,6 +21,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -115,12 +117,36 @@ class UserServiceTest {
     @Test
     void getAll() {
         Mockito
-                .when(userRepository.findAll((Pageable) any()))
-                .thenReturn(new PageImpl<>(List.of(user)));
+                .when(userRepository.findAllBy(any()))
+                .thenReturn(new SliceImpl<>(List.of(user)));
         List<User> users = userService.getAll(0, 10);
 
         assertEquals(users.size(), 1);
 
-        verify(userRepository, times(1)).findAll((Pageable) any());
+        verify(userRepository, times(1)).findAllBy(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPage() {
+        User next = User.builder()
+                .id(2L)
+                .name("user2")
+                .email("user2@mail.ru")
+                .build();
+        Mockito
+                .when(userRepository.findAllByIdGreaterThanOrderById(eq(0L), any()))
+                .thenReturn(List.of(user, next));
+        Mockito
+                .when(userRepository.findAllByIdGreaterThanOrderById(eq(user.getId()), any()))
+                .thenReturn(List.of(next));
+
+        CursorPage<User> first = userService.getPage("", 1);
+        CursorPage<User> second = userService.getPage(first.getNextCursor(), 1);
+
+        assertEquals(first.getContent(), List.of(user));
+        assertEquals(Cursor.decode(first.getNextCursor()).getId(), user.getId());
+        assertEquals(second.getContent(), List.of(next));
+        assertNull(second.getNextCursor());
+        assertThrows(IllegalArgumentException.class, () -> userService.getPage("не курсор", 1));
+    }
+}